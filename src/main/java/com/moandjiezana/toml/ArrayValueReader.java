@@ -1,47 +1,64 @@
 package com.moandjiezana.toml;
 
+import static com.moandjiezana.toml.NumberValueReaderWriter.FLOAT;
+import static com.moandjiezana.toml.NumberValueReaderWriter.INTEGER;
+import static com.moandjiezana.toml.NumberValueReaderWriter.NONE;
+import static com.moandjiezana.toml.NumberValueReaderWriter.NUMBER_VALUE_READER_WRITER;
 import static com.moandjiezana.toml.ValueReaders.VALUE_READERS;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 class ArrayValueReader implements ValueReader {
 
   static final ArrayValueReader ARRAY_VALUE_READER = new ArrayValueReader();
 
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("[");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("[", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    AtomicInteger line = context.line;
-    int startLine = line.get();
-    int startIndex = index.get();
+  public Object read(Source s, ParseState state) {
+    int startLine = state.line;
+    int startIndex = state.index;
+    int startColumn = state.column(startIndex);
     List<Object> arrayItems = new ArrayList<Object>();
+    LongList longs = null;
+    DoubleList doubles = null;
     boolean terminated = false;
     boolean inComment = false;
-    Results.Errors errors = new Results.Errors();
+    Results.Errors errors = state.errors;
+    boolean failed = false;
     
-    for (int i = index.incrementAndGet(); i < s.length(); i = index.incrementAndGet()) {
+    for (int i = ++state.index; s.has(i); i = ++state.index) {
+      if (failed && errors.failFast) {
+        return errors;
+      }
 
       char c = s.charAt(i);
       
       if (c == '#' && !inComment) {
         inComment = true;
+        continue;
       } else if (c == '\n') {
         inComment = false;
-        line.incrementAndGet();
+        state.newLine(i);
+        continue;
       } else if (inComment || Character.isWhitespace(c) || c == ',') {
         continue;
-      } else if (c == '[') {
-        Object converted = read(s, index, context);
+      }
+      
+      int elementLine = state.line;
+      int elementColumn = state.column(i);
+      
+      if (c == '[') {
+        Object converted = read(s, state);
         if (converted instanceof Results.Errors) {
-          errors.add((Results.Errors) converted);
-        } else if (!isHomogenousArray(converted, arrayItems)) {
-          errors.heterogenous(context.identifier.getName(), line.get());
+          failed = true;
+        } else if (longs != null || doubles != null || !isHomogenousArray(converted, arrayItems)) {
+          errors.heterogenous(state.identifier.getName(), elementLine, elementColumn);
+          failed = true;
         } else {
           arrayItems.add(converted);
         }
@@ -49,12 +66,32 @@ class ArrayValueReader implements ValueReader {
       } else if (c == ']') {
         terminated = true;
         break;
+      } else if (arrayItems.isEmpty() && VALUE_READERS.readerFor(s, i) == NUMBER_VALUE_READER_WRITER) {
+        int type = NUMBER_VALUE_READER_WRITER.readUnboxed(s, state);
+        if (type == NONE) {
+          NUMBER_VALUE_READER_WRITER.invalidValue(s, i, state);
+          failed = true;
+        } else if (type == INTEGER && doubles == null) {
+          if (longs == null) {
+            longs = new LongList();
+          }
+          longs.append(state.number);
+        } else if (type == FLOAT && longs == null) {
+          if (doubles == null) {
+            doubles = new DoubleList();
+          }
+          doubles.append(Double.longBitsToDouble(state.number));
+        } else {
+          errors.heterogenous(state.identifier.getName(), elementLine, elementColumn);
+          failed = true;
+        }
       } else {
-        Object converted = VALUE_READERS.convert(s, index, context);
+        Object converted = VALUE_READERS.convert(s, state);
         if (converted instanceof Results.Errors) {
-          errors.add((Results.Errors) converted);
-        } else if (!isHomogenousArray(converted, arrayItems)) {
-          errors.heterogenous(context.identifier.getName(), line.get());
+          failed = true;
+        } else if (longs != null || doubles != null || !isHomogenousArray(converted, arrayItems)) {
+          errors.heterogenous(state.identifier.getName(), elementLine, elementColumn);
+          failed = true;
         } else {
           arrayItems.add(converted);
         }
@@ -62,18 +99,58 @@ class ArrayValueReader implements ValueReader {
     }
     
     if (!terminated) {
-      errors.unterminated(context.identifier.getName(), s.substring(startIndex, s.length()), startLine);
+      errors.unterminated(state.identifier.getName(), s.substring(startIndex), startLine, startColumn);
+      failed = true;
     }
     
-    if (errors.hasErrors()) {
+    if (failed) {
       return errors;
     }
     
+    if (longs != null) {
+      return longs.trim();
+    }
+    
+    if (doubles != null) {
+      return doubles.trim();
+    }
+    
     return arrayItems;
   }
 
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    int startLine = state.line;
+    int startIndex = state.index;
+    int startColumn = state.column(startIndex);
+    boolean inComment = false;
+    
+    for (int i = ++state.index; s.has(i); i = ++state.index) {
+      char c = s.charAt(i);
+      
+      if (c == '#' && !inComment) {
+        inComment = true;
+      } else if (c == '\n') {
+        inComment = false;
+        state.newLine(i);
+      } else if (inComment || Character.isWhitespace(c) || c == ',') {
+        continue;
+      } else if (c == ']') {
+        return null;
+      } else {
+        Results.Errors errors = c == '[' ? skip(s, state) : VALUE_READERS.skip(s, state);
+        if (errors != null) {
+          return errors;
+        }
+      }
+    }
+    
+    state.errors.unterminated(state.identifier.getName(), s.substring(startIndex), startLine, startColumn);
+    return state.errors;
+  }
+
   private boolean isHomogenousArray(Object o, List<?> values) {
-    return values.isEmpty() || values.get(0).getClass().isAssignableFrom(o.getClass()) || o.getClass().isAssignableFrom(values.get(0).getClass());
+    return values.isEmpty() || (o instanceof List && values.get(0) instanceof List) || values.get(0).getClass().isAssignableFrom(o.getClass()) || o.getClass().isAssignableFrom(values.get(0).getClass());
   }
   
   private ArrayValueReader() {}
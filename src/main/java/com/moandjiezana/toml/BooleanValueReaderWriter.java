@@ -1,29 +1,32 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
-
 class BooleanValueReaderWriter implements ValueReader, ValueWriter {
   
   static final BooleanValueReaderWriter BOOLEAN_VALUE_READER_WRITER = new BooleanValueReaderWriter(); 
 
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("true") || s.startsWith("false");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("true", index) || s.startsWith("false", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    s = s.substring(index.get());
-    Boolean b = s.startsWith("true") ? Boolean.TRUE : Boolean.FALSE;
+  public Object read(Source s, ParseState state) {
+    Boolean b = s.startsWith("true", state.index) ? Boolean.TRUE : Boolean.FALSE;
     
     int endIndex = b == Boolean.TRUE ? 4 : 5;
     
-    index.addAndGet(endIndex - 1);
+    state.index += endIndex - 1;
     
     return b;
   }
 
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    read(s, state);
+    
+    return null;
+  }
+
   @Override
   public boolean canWrite(Object value) {
     return Boolean.class.isInstance(value);
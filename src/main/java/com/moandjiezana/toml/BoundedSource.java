@@ -0,0 +1,30 @@
+package com.moandjiezana.toml;
+
+/**
+ * The characters of another source that come before endIndex. Nothing is released, as the other source may be read again.
+ */
+class BoundedSource extends Source {
+
+  private final Source source;
+  private final int endIndex;
+
+  BoundedSource(Source source, int endIndex) {
+    this.source = source;
+    this.endIndex = endIndex;
+  }
+
+  @Override
+  boolean has(int index) {
+    return index < endIndex && source.has(index);
+  }
+
+  @Override
+  char charAt(int index) {
+    return source.charAt(index);
+  }
+
+  @Override
+  String substring(int start, int end) {
+    return source.substring(start, end);
+  }
+}
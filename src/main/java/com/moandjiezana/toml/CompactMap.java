@@ -0,0 +1,105 @@
+package com.moandjiezana.toml;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable table that holds its keys and values in two arrays sized to its contents. Lookups scan the keys, so it is only used for small tables.
+ */
+class CompactMap extends AbstractMap<String, Object> {
+  
+  static final int MAX_SIZE = 8;
+  
+  private final String[] keys;
+  private final Object[] values;
+  
+  CompactMap(Map<String, Object> map) {
+    keys = new String[map.size()];
+    values = new Object[map.size()];
+    
+    int i = 0;
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      keys[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+  }
+  
+  /**
+   * Uses the arrays as they are, so they must not be modified afterwards.
+   */
+  CompactMap(String[] keys, Object[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+  
+  @Override
+  public Object get(Object key) {
+    int i = indexOf(key);
+    
+    return i > -1 ? values[i] : null;
+  }
+  
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) > -1;
+  }
+  
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<String, Object>>() {
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator() {
+        return new Iterator<Map.Entry<String, Object>>() {
+          private int next = 0;
+          
+          @Override
+          public boolean hasNext() {
+            return next < keys.length;
+          }
+
+          @Override
+          public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            
+            Map.Entry<String, Object> entry = new SimpleImmutableEntry<String, Object>(keys[next], values[next]);
+            next++;
+            
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+  
+  private int indexOf(Object key) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].equals(key)) {
+        return i;
+      }
+    }
+    
+    return -1;
+  }
+}
@@ -1,6 +1,7 @@
 package com.moandjiezana.toml;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,12 @@ abstract class Container {
     private final Map<String, Object> values = new HashMap<String, Object>();
     final String name;
     final boolean implicit;
+    private boolean lazy = false;
+    private TableBody body;
+    /**
+     * The keys of this table's section, already converted, when they were parsed separately from its subtables
+     */
+    private Map<String, Object> section;
 
     Table() {
       this(null, false);
@@ -32,12 +39,13 @@ abstract class Container {
 
     @Override
     boolean accepts(String key) {
-      return !values.containsKey(key) || values.get(key) instanceof Container.TableArray;
+      return (!values.containsKey(key) && (section == null || !section.containsKey(key))) || values.get(key) instanceof Container.TableArray;
     }
 
     @Override
     void put(String key, Object value) {
       values.put(key, value);
+      lazy |= value instanceof LazyValue;
     }
 
     @Override
@@ -48,15 +56,75 @@ abstract class Container {
     boolean isImplicit() {
       return implicit;
     }
+    
+    /**
+     * Adds the keys of a section that was parsed on its own. If this table has no subtables, consume() returns section itself.
+     * 
+     * @return null, or a key of section that is already a subtable of this table
+     */
+    String addSection(Map<String, Object> section) {
+      for (String key : values.keySet()) {
+        if (section.containsKey(key)) {
+          return key;
+        }
+      }
+      
+      this.section = section;
+      
+      return null;
+    }
+    
+    /**
+     * Postpones parsing body until this table is first accessed.
+     */
+    void defer(TableBody body) {
+      this.body = body;
+    }
+    
+    /**
+     * Parses the deferred body, if any, before a table is defined inside this one, so that conflicts are found in document order.
+     * 
+     * @return null, or the errors found in the body
+     */
+    Results.Errors parseDeferredBody() {
+      if (body == null) {
+        return null;
+      }
+      
+      TableBody deferred = body;
+      body = null;
+      
+      return deferred.parse(this);
+    }
+    
+    /**
+     * @return the result of {@link #consume()}, once the deferred body has been parsed
+     */
+    Map<String, Object> consumeBody() {
+      TableBody deferred = body;
+      body = null;
+      deferred.parseInto(this);
+      
+      return consume();
+    }
 
     /**
      * This modifies the Table's internal data structure, such that it is no longer usable.
      *
      * Therefore, this method must only be called when all data has been gathered.
 
-     * @return A Map-and-List-based of the TOML data
+     * @return A Map-and-List-based of the TOML data. If any value is a {@link LazyValue} or the body has been deferred, a {@link LazyTable}.
+     * Otherwise, a {@link CompactMap} if there are few enough keys. Either way, the Map cannot be modified.
      */
     Map<String, Object> consume() {
+      if (body != null) {
+        return new LazyTable(this);
+      }
+      
+      if (section != null && values.isEmpty()) {
+        return section;
+      }
+      
       for (Map.Entry<String, Object> entry : values.entrySet()) {
         if (entry.getValue() instanceof Container.Table) {
           entry.setValue(((Container.Table) entry.getValue()).consume());
@@ -64,8 +132,19 @@ abstract class Container {
           entry.setValue(((Container.TableArray) entry.getValue()).getValues());
         }
       }
+      
+      if (section instanceof LazyTable) {
+        ((LazyTable) section).putUnresolved(values);
+        lazy = true;
+      } else if (section != null) {
+        values.putAll(section);
+      }
+
+      if (lazy) {
+        return new LazyTable(values);
+      }
 
-      return values;
+      return values.size() <= CompactMap.MAX_SIZE ? new CompactMap(values) : Collections.unmodifiableMap(values);
     }
 
     @Override
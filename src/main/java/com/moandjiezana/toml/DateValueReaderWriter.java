@@ -3,24 +3,32 @@ package com.moandjiezana.toml;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
 
 class DateValueReaderWriter implements ValueReader, ValueWriter {
 
   static final DateValueReaderWriter DATE_VALUE_READER_WRITER = new DateValueReaderWriter();
   static final DateValueReaderWriter DATE_PARSER_JDK_6 = new DateConverterJdk6();
-  private static final Pattern DATE_REGEX = Pattern.compile("(\\d{4}-[0-1][0-9]-[0-3][0-9]T[0-2][0-9]:[0-5][0-9]:[0-5][0-9])(\\.\\d*)?(Z|(?:[+\\-]\\d{2}:\\d{2}))(.*)");
+  private static final long INVALID = Long.MIN_VALUE;
+  private static final int FIRST_GREGORIAN_YEAR = 1583;
+  /**
+   * The range of offsets accepted by {@link GregorianCalendar}
+   */
+  private static final int MIN_OFFSET_MINUTES = -13 * 60;
+  private static final int MAX_OFFSET_MINUTES = 14 * 60;
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+  private static final long FIRST_GREGORIAN_MILLIS = daysSinceEpoch(FIRST_GREGORIAN_YEAR, 1, 1) * MILLIS_PER_DAY;
 
   @Override
-  public boolean canRead(String s) {
-    if (s.length() < 5) {
+  public boolean canRead(Source s, int index) {
+    if (!s.has(index + 4)) {
       return false;
     }
     
     for (int i = 0; i < 5; i++) {
-      char c = s.charAt(i);
+      char c = s.charAt(index + i);
       
       if (i < 4) {
         if (!Character.isDigit(c)) {
@@ -35,52 +43,177 @@ class DateValueReaderWriter implements ValueReader, ValueWriter {
   }
 
   @Override
-  public Object read(String original, AtomicInteger index, Context context) {
-    StringBuilder sb = new StringBuilder();
+  public Object read(Source original, ParseState state) {
+    int startIndex = state.index;
+    skip(original, state);
     
-    for (int i = index.get(); i < original.length(); i = index.incrementAndGet()) {
-      char c = original.charAt(i);
-      if (Character.isDigit(c) || c == '-' || c == '+' || c == ':' || c == '.' || c == 'T' || c == 'Z') {
-        sb.append(c);
-      } else {
-        index.decrementAndGet();
-        break;
+    int endIndex = original.has(state.index) ? state.index + 1 : state.index;
+    long time = parse(original, startIndex, endIndex);
+    
+    if (time == INVALID) {
+      state.errors.invalidValue(state.identifier.getName(), original.substring(startIndex, endIndex), state.line, state.column(startIndex));
+      return state.errors;
+    }
+    
+    return new Date(time);
+  }
+  
+  /**
+   * Decodes yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:mm|-HH:mm) by position. Fractions of a millisecond are truncated.
+   * 
+   * @return milliseconds since the epoch, or {@link #INVALID}
+   */
+  private static long parse(Source s, int start, int end) {
+    if (end - start < 20 || s.charAt(start + 4) != '-' || s.charAt(start + 7) != '-' || s.charAt(start + 10) != 'T' || s.charAt(start + 13) != ':' || s.charAt(start + 16) != ':') {
+      return INVALID;
+    }
+    
+    int year = digits(s, start, 4);
+    int month = digits(s, start + 5, 2);
+    int day = digits(s, start + 8, 2);
+    int hour = digits(s, start + 11, 2);
+    int minute = digits(s, start + 14, 2);
+    int second = digits(s, start + 17, 2);
+    
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return INVALID;
+    }
+    
+    int i = start + 19;
+    int millis = 0;
+    
+    if (s.charAt(i) == '.') {
+      int fractionDigits = 0;
+      for (i++; i < end && isDigit(s.charAt(i)); i++, fractionDigits++) {
+        if (fractionDigits < 3) {
+          millis = millis * 10 + s.charAt(i) - '0';
+        }
+      }
+      
+      if (fractionDigits == 0) {
+        return INVALID;
+      }
+      
+      for (; fractionDigits < 3; fractionDigits++) {
+        millis *= 10;
       }
     }
     
-    String s = sb.toString();
-    Matcher matcher = DATE_REGEX.matcher(s);
+    if (i >= end) {
+      return INVALID;
+    }
     
-    if (!matcher.matches()) {
-      Results.Errors errors = new Results.Errors();
-      errors.invalidValue(context.identifier.getName(), s, context.line.get());
-      return errors;
+    int offsetMinutes;
+    char zone = s.charAt(i);
+    if (zone == 'Z') {
+      offsetMinutes = 0;
+      i++;
+    } else if ((zone == '+' || zone == '-') && end - i >= 6 && s.charAt(i + 3) == ':') {
+      int offsetHours = digits(s, i + 1, 2);
+      offsetMinutes = digits(s, i + 4, 2);
+      if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59) {
+        return INVALID;
+      }
+      offsetMinutes += offsetHours * 60;
+      if (zone == '-') {
+        offsetMinutes = -offsetMinutes;
+      }
+      if (offsetMinutes < MIN_OFFSET_MINUTES || offsetMinutes > MAX_OFFSET_MINUTES) {
+        return INVALID;
+      }
+      i += 6;
+    } else {
+      return INVALID;
     }
     
-    String dateString = matcher.group(1);
-    String zone = matcher.group(3);
-    String fractionalSeconds = matcher.group(2);
-    String format = "yyyy-MM-dd'T'HH:mm:ss";
-    if (fractionalSeconds != null && !fractionalSeconds.isEmpty()) {
-      format += ".SSS";
-      dateString += fractionalSeconds;
+    if (i != end) {
+      return INVALID;
     }
-    format += "Z";
-    if ("Z".equals(zone)) {
-      dateString += "+0000";
-    } else if (zone.contains(":")) {
-      dateString += zone.replace(":", "");
+    
+    long time;
+    if (year < FIRST_GREGORIAN_YEAR) {
+      time = toJulianOrGregorian(year, month, day, hour, minute, second);
+      if (time == INVALID) {
+        return INVALID;
+      }
+    } else if (day > daysInMonth(year, month)) {
+      return INVALID;
+    } else {
+      time = (((daysSinceEpoch(year, month, day) * 24 + hour) * 60 + minute) * 60 + second) * 1000;
     }
-
+    
+    return time + millis - offsetMinutes * 60000L;
+  }
+  
+  /**
+   * @return the value of count digits, or -1 if there is a non-digit
+   */
+  private static int digits(Source s, int index, int count) {
+    int value = 0;
+    
+    for (int i = index; i < index + count; i++) {
+      char c = s.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + c - '0';
+    }
+    
+    return value;
+  }
+  
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+  
+  private static int daysInMonth(int year, int month) {
+    if (month == 2) {
+      return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+    }
+    
+    return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+  }
+  
+  /**
+   * Counts days in the proleptic Gregorian calendar, starting the year in March so that leap days come last.
+   */
+  private static long daysSinceEpoch(int year, int month, int day) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = y / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    
+    return era * 146097L + dayOfEra - 719468;
+  }
+  
+  /**
+   * java.util.Date uses the Julian calendar before October 1582, so earlier dates are left to {@link GregorianCalendar}.
+   */
+  private static long toJulianOrGregorian(int year, int month, int day, int hour, int minute, int second) {
+    GregorianCalendar calendar = new GregorianCalendar(UTC);
+    calendar.setLenient(false);
+    calendar.clear();
+    calendar.set(year, month - 1, day, hour, minute, second);
+    
     try {
-      SimpleDateFormat dateFormat = new SimpleDateFormat(format);
-      dateFormat.setLenient(false);
-      return dateFormat.parse(dateString);
-    } catch (Exception e) {
-      Results.Errors errors = new Results.Errors();
-      errors.invalidValue(context.identifier.getName(), s, context.line.get());
-      return errors;
+      return calendar.getTimeInMillis();
+    } catch (IllegalArgumentException e) {
+      return INVALID;
+    }
+  }
+
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    for (int i = state.index; s.has(i); i = ++state.index) {
+      char c = s.charAt(i);
+      if (!Character.isDigit(c) && c != '-' && c != '+' && c != ':' && c != '.' && c != 'T' && c != 'Z') {
+        state.index--;
+        break;
+      }
     }
+    
+    return null;
   }
 
   @Override
@@ -90,8 +223,91 @@ class DateValueReaderWriter implements ValueReader, ValueWriter {
 
   @Override
   public void write(Object value, WriterContext context) {
+    write(((Date) value).getTime(), context);
+  }
+  
+  void write(long time, WriterContext context) {
+    DatePolicy datePolicy = context.getDatePolicy();
+    int offsetMillis = datePolicy.getTimeZone().getOffset(time);
+    long localTime = time + offsetMillis;
+    
+    if (localTime < FIRST_GREGORIAN_MILLIS) {
+      writeFormatted(new Date(time), context);
+      return;
+    }
+    
+    long days = localTime / MILLIS_PER_DAY;
+    int millisOfDay = (int) (localTime % MILLIS_PER_DAY);
+    if (millisOfDay < 0) {
+      days--;
+      millisOfDay += MILLIS_PER_DAY;
+    }
+    
+    // Days since 0000-03-01, so that leap days come last
+    long z = days + 719468;
+    long era = (z >= 0 ? z : z - 146096) / 146097;
+    int dayOfEra = (int) (z - era * 146097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+    
+    int secondOfDay = millisOfDay / 1000;
+    int millis = datePolicy.isShowFractionalSeconds() ? millisOfDay % 1000 : -1;
+    
+    write(year, month, day, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, millis, offsetMillis / 60000, context);
+  }
+  
+  /**
+   * Writes yyyy-MM-ddTHH:mm:ss[.SSS](Z|+HH:mm|-HH:mm) digit by digit.
+   * 
+   * @param millis the fraction of a second, or -1 to leave it out
+   */
+  static void write(int year, int month, int day, int hour, int minute, int second, int millis, int offsetMinutes, WriterContext context) {
+    if (year < 0) {
+      context.write('-');
+      year = -year;
+    }
+    if (year > 9999) {
+      context.write(Integer.toString(year / 10000));
+      year %= 10000;
+    }
+    writeDigits(year / 100, context);
+    writeDigits(year % 100, context);
+    writeDigits(month, context.write('-'));
+    writeDigits(day, context.write('-'));
+    writeDigits(hour, context.write('T'));
+    writeDigits(minute, context.write(':'));
+    writeDigits(second, context.write(':'));
+    
+    if (millis >= 0) {
+      context.write('.').write((char) ('0' + millis / 100));
+      writeDigits(millis % 100, context);
+    }
+    
+    if (offsetMinutes == 0) {
+      context.write('Z');
+      return;
+    }
+    
+    context.write(offsetMinutes < 0 ? '-' : '+');
+    offsetMinutes = Math.abs(offsetMinutes);
+    writeDigits(offsetMinutes / 60, context);
+    writeDigits(offsetMinutes % 60, context.write(':'));
+  }
+  
+  private static void writeDigits(int twoDigits, WriterContext context) {
+    context.write((char) ('0' + twoDigits / 10)).write((char) ('0' + twoDigits % 10));
+  }
+  
+  /**
+   * java.util.Date uses the Julian calendar before October 1582, so earlier dates are left to {@link SimpleDateFormat}.
+   */
+  void writeFormatted(Date date, WriterContext context) {
     DateFormat formatter = getFormatter(context.getDatePolicy());
-    context.write(formatter.format(value));
+    context.write(formatter.format(date));
   }
 
   @Override
@@ -130,7 +346,7 @@ class DateValueReaderWriter implements ValueReader, ValueWriter {
   
   private static class DateConverterJdk6 extends DateValueReaderWriter {
     @Override
-    public void write(Object value, WriterContext context) {
+    void writeFormatted(Date value, WriterContext context) {
       DateFormat formatter = super.getFormatter(context.getDatePolicy());
       String date = formatter.format(value);
       
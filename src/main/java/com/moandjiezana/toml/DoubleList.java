@@ -0,0 +1,102 @@
+package com.moandjiezana.toml;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A list of doubles that stores its elements unboxed. They are only boxed when read through the {@link java.util.List} interface.
+ * 
+ * Can be modified like an {@link java.util.ArrayList}, except that null elements are not allowed.
+ */
+class DoubleList extends AbstractList<Double> implements RandomAccess {
+  
+  private double[] values = new double[8];
+  private int size;
+
+  @Override
+  public Double get(int index) {
+    checkIndex(index, size);
+    
+    return Double.valueOf(values[index]);
+  }
+  
+  @Override
+  public Double set(int index, Double element) {
+    checkIndex(index, size);
+    double previous = values[index];
+    values[index] = element.doubleValue();
+    
+    return Double.valueOf(previous);
+  }
+  
+  @Override
+  public void add(int index, Double element) {
+    checkIndex(index, size + 1);
+    double value = element.doubleValue();
+    ensureCapacity();
+    System.arraycopy(values, index, values, index + 1, size - index);
+    values[index] = value;
+    size++;
+    modCount++;
+  }
+  
+  @Override
+  public Double remove(int index) {
+    checkIndex(index, size);
+    double previous = values[index];
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    size--;
+    modCount++;
+    
+    return Double.valueOf(previous);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+  
+  double[] toDoubleArray() {
+    return Arrays.copyOf(values, size);
+  }
+  
+  /**
+   * @return a list with the same elements, which can be modified separately
+   */
+  DoubleList copy() {
+    DoubleList copy = new DoubleList();
+    copy.values = toDoubleArray();
+    copy.size = size;
+    
+    return copy;
+  }
+  
+  void append(double value) {
+    ensureCapacity();
+    values[size++] = value;
+  }
+  
+  private void ensureCapacity() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(8, size * 2));
+    }
+  }
+  
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+  
+  /**
+   * Releases the unused part of the backing array once the list is complete.
+   */
+  DoubleList trim() {
+    if (size < values.length) {
+      values = Arrays.copyOf(values, size);
+    }
+    
+    return this;
+  }
+}
@@ -0,0 +1,147 @@
+package com.moandjiezana.toml;
+
+/**
+ * Finds table headers without parsing the document, so that it can be split into {@link Segment}s.
+ *
+ * Only what can contain a line starting with [ is followed: comments, strings and arrays. Keys and values are not checked, so an invalid
+ * document may be split where the parser would not find a header. The segments are parsed in full, which reports such errors.
+ */
+class HeaderScanner {
+
+  private final Source source;
+  private int index = 0;
+  private int line = 1;
+  private int arrayDepth = 0;
+  private boolean lineStart = true;
+
+  /**
+   * The position and line of the last header found by {@link #find(int)}
+   */
+  int headerIndex;
+  int headerLine;
+
+  HeaderScanner(Source source) {
+    this.source = source;
+  }
+
+  /**
+   * @return true if a table header was found at or after fromIndex. Its position is in {@link #headerIndex} and {@link #headerLine}.
+   */
+  boolean find(int fromIndex) {
+    while (source.has(index)) {
+      char c = source.charAt(index);
+
+      if (c == '\n') {
+        line++;
+        lineStart = true;
+        index++;
+        continue;
+      }
+
+      if (c == ' ' || c == '\t' || c == '\r') {
+        index++;
+        continue;
+      }
+
+      if (c == '[' && lineStart && arrayDepth == 0) {
+        int start = index;
+        lineStart = false;
+        index = skipLine(index);
+
+        if (start >= fromIndex) {
+          headerIndex = start;
+          headerLine = line;
+
+          return true;
+        }
+
+        continue;
+      }
+
+      lineStart = false;
+
+      if (c == '#') {
+        index = skipComment(index);
+      } else if (c == '"' || c == '\'') {
+        index = skipString(index, c);
+      } else {
+        if (c == '[') {
+          arrayDepth++;
+        } else if (c == ']' && arrayDepth > 0) {
+          arrayDepth--;
+        }
+
+        index++;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * @return the position of the end of the line, skipping strings that could contain a #
+   */
+  private int skipLine(int i) {
+    while (source.has(i) && source.charAt(i) != '\n') {
+      char c = source.charAt(i);
+
+      if (c == '#') {
+        return skipComment(i);
+      }
+
+      i = c == '"' || c == '\'' ? skipString(i, c) : i + 1;
+    }
+
+    return i;
+  }
+
+  private int skipComment(int i) {
+    while (source.has(i) && source.charAt(i) != '\n') {
+      i++;
+    }
+
+    return i;
+  }
+
+  /**
+   * @return the position after the string that starts at i. A single-line string also ends at the end of the line.
+   */
+  private int skipString(int i, char quote) {
+    boolean basic = quote == '"';
+    String delimiter = basic ? "\"\"\"" : "'''";
+
+    if (source.startsWith(delimiter, i)) {
+      int j = i + 3;
+
+      for (; source.has(j); j++) {
+        char c = source.charAt(j);
+
+        if (c == '\n') {
+          line++;
+        } else if (c == '\\' && basic && source.has(j + 1) && source.charAt(j + 1) != '\n') {
+          j++;
+        } else if (c == quote && source.startsWith(delimiter, j)) {
+          return j + 3;
+        }
+      }
+
+      return j;
+    }
+
+    int j = i + 1;
+
+    for (; source.has(j); j++) {
+      char c = source.charAt(j);
+
+      if (c == '\n') {
+        return j;
+      } else if (c == '\\' && basic && source.has(j + 1) && source.charAt(j + 1) != '\n') {
+        j++;
+      } else if (c == quote) {
+        return j + 1;
+      }
+    }
+
+    return j;
+  }
+}
@@ -1,61 +1,247 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import static com.moandjiezana.toml.StringValueReaderWriter.STRING_VALUE_READER_WRITER;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads, validates and splits keys and table headers in a single pass.
+ */
 class IdentifierConverter {
   
   static final IdentifierConverter IDENTIFIER_CONVERTER = new IdentifierConverter();
+  
+  /**
+   * Indexed by ASCII character, true for the characters allowed in bare keys
+   */
+  private static final boolean[] BARE = new boolean[128];
+  
+  static {
+    for (char c = 'A'; c <= 'Z'; c++) {
+      BARE[c] = true;
+    }
+    for (char c = 'a'; c <= 'z'; c++) {
+      BARE[c] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      BARE[c] = true;
+    }
+    BARE['_'] = true;
+    BARE['-'] = true;
+  }
 
-  Identifier convert(String s, AtomicInteger index, Context context) {
+  /**
+   * Reads a key up to its equals sign, or a table header up to the end of its line.
+   * 
+   * Starts at the position of the identifier's first character, and leaves state.index on the equals sign after a key, or before the end of the line after a table header.
+   */
+  Identifier convert(Source s, ParseState state) {
+    if (s.charAt(state.index) == '[') {
+      return convertTable(s, state);
+    }
+    
+    return convertKey(s, state);
+  }
+  
+  /**
+   * Reads a key up to its equals sign, even if it starts with a square bracket.
+   */
+  Identifier convertKey(Source s, ParseState state) {
+    int start = state.index;
+    int end = s.has(start) && s.charAt(start) != '\'' ? partEnd(s, start) : -1;
+    
+    if (end > start) {
+      int i = skipWhitespace(s, end);
+      
+      if (s.has(i) && s.charAt(i) == '=') {
+        state.index = i;
+        
+        return Identifier.key(part(s, start, end, state));
+      }
+    }
+    
+    return invalid(s, state, true, false);
+  }
+  
+  private Identifier convertTable(Source s, ParseState state) {
+    int start = state.index;
+    boolean isTableArray = s.has(start + 1) && s.charAt(start + 1) == '[';
+    List<String> path = new ArrayList<String>(4);
+    StringBuilder name = state.buffer;
+    name.setLength(0);
+    name.append(isTableArray ? "[[" : "[");
+    int i = start + name.length();
+    
+    while (true) {
+      i = skipWhitespace(s, i);
+      int end = s.has(i) ? partEnd(s, i) : -1;
+      
+      if (end < 0) {
+        return invalid(s, state, false, !path.isEmpty() && s.has(i) && s.charAt(i) == '.');
+      }
+      
+      String part = part(s, i, end, state);
+      path.add(part);
+      name.append(part);
+      i = skipWhitespace(s, end);
+      
+      if (!s.has(i)) {
+        return invalid(s, state, false, false);
+      }
+      
+      char c = s.charAt(i++);
+      if (c == ']') {
+        break;
+      } else if (c != '.') {
+        return invalid(s, state, false, false);
+      }
+      
+      name.append('.');
+    }
+    
+    if (isTableArray) {
+      if (!s.has(i) || s.charAt(i) != ']') {
+        return invalid(s, state, false, false);
+      }
+      i++;
+    }
+    
+    for (boolean inComment = false; s.has(i) && s.charAt(i) != '\n'; i++) {
+      char c = s.charAt(i);
+      
+      if (c == '#') {
+        inComment = true;
+      } else if (!inComment && !Character.isWhitespace(c)) {
+        return invalid(s, state, false, false);
+      }
+    }
+    
+    state.index = s.has(i) ? i - 1 : i;
+    String[] parts = path.toArray(new String[path.size()]);
+    
+    return isTableArray ? Identifier.tableArray(name.append("]]").toString(), parts) : Identifier.table(name.append(']').toString(), parts);
+  }
+  
+  /**
+   * @return the position after a bare, quoted or literal name starting at index, or -1 if there is none
+   */
+  private static int partEnd(Source s, int index) {
+    char c = s.charAt(index);
+    
+    if (c == '"' || c == '\'') {
+      for (int i = index + 1; s.has(i); i++) {
+        char next = s.charAt(i);
+        
+        if (next == c) {
+          return i + 1;
+        } else if (next == '\n') {
+          break;
+        } else if (next == '\\' && c == '"') {
+          i++;
+        }
+      }
+      
+      return -1;
+    }
+    
+    int i = index;
+    while (s.has(i) && s.charAt(i) < 128 && BARE[s.charAt(i)]) {
+      i++;
+    }
+    
+    return i > index ? i : -1;
+  }
+  
+  private static String part(Source s, int start, int end, ParseState state) {
+    KeyInterner keys = state.keys;
+    String part = keys != null ? keys.intern(s, start, end) : s.substring(start, end);
+    
+    if (s.charAt(start) == '"' && part.indexOf('\\') > -1) {
+      part = STRING_VALUE_READER_WRITER.replaceUnicodeCharacters(part);
+      
+      return keys != null ? keys.intern(part) : part;
+    }
+    
+    return part;
+  }
+  
+  private static int skipWhitespace(Source s, int index) {
+    int i = index;
+    
+    while (s.has(i) && s.charAt(i) != '\n' && Character.isWhitespace(s.charAt(i))) {
+      i++;
+    }
+    
+    return i;
+  }
+  
+  /**
+   * Finds where an invalid identifier ends, to report it.
+   * 
+   * @param emptyImplicitTable true if a table name contains two consecutive dots
+   */
+  private Identifier invalid(Source s, ParseState state, boolean isKey, boolean emptyImplicitTable) {
     boolean quoted = false;
-    StringBuilder name = new StringBuilder();
+    int startIndex = state.index;
+    int endIndex = -1;
     boolean terminated = false;
-    boolean isKey = s.charAt(index.get()) != '[';
-    boolean isTableArray = !isKey && s.length() > index.get() + 1 && s.charAt(index.get() + 1) == '[';
+    boolean isTableArray = !isKey && s.has(startIndex + 1) && s.charAt(startIndex + 1) == '[';
     boolean inComment = false;
     
-    for (int i = index.get(); i < s.length(); i = index.incrementAndGet()) {
+    int i = startIndex;
+    for (; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
-      if (Keys.isQuote(c) && (i == 0 || s.charAt(i - 1) != '\\')) {
-        quoted = !quoted;
-        name.append(c);
-      } else if (c == '\n') {
-        index.decrementAndGet();
+      if (c == '\n') {
+        state.index--;
         break;
+      } else if (terminated) {
+        if (c == '#') {
+          inComment = true;
+        } else if (!inComment && !Character.isWhitespace(c)) {
+          terminated = false;
+          break;
+        }
+      } else if (Keys.isQuote(c) && (i == startIndex || s.charAt(i - 1) != '\\')) {
+        quoted = !quoted;
       } else if (quoted) {
-        name.append(c);
+        continue;
       } else if (c == '=' && isKey) {
+        endIndex = i;
         terminated = true;
         break;
       } else if (c == ']' && !isKey) {
-        if (!isTableArray || s.length() > index.get() + 1 && s.charAt(index.get() + 1) == ']') {
+        if (!isTableArray) {
+          endIndex = i + 1;
+          terminated = true;
+        } else if (s.has(i + 1) && s.charAt(i + 1) == ']') {
+          endIndex = i + 2;
           terminated = true;
-          name.append(']');
-          if (isTableArray) {
-            name.append(']');
-          }
+          ++state.index;
         }
-      } else if (terminated && c == '#') {
-        inComment = true;
-      } else if (terminated && !Character.isWhitespace(c) && !inComment) {
-        terminated = false;
-        break;
-      } else if (!terminated) {
-        name.append(c);
       }
     }
     
+    String name = s.substring(startIndex, endIndex > -1 ? endIndex : i);
+    int column = state.column(startIndex);
+    
     if (!terminated) {
       if (isKey) {
-        context.errors.unterminatedKey(name.toString(), context.line.get());
+        state.errors.unterminatedKey(name, state.line, column);
       } else {
-        context.errors.invalidKey(name.toString(), context.line.get());
+        state.errors.invalidKey(name, state.line, column);
       }
-      
-      return Identifier.INVALID;
+    } else if (isKey) {
+      state.errors.invalidKey(name.trim(), state.line, column);
+    } else if (emptyImplicitTable) {
+      state.errors.emptyImplicitTable(name.trim(), state.line, column);
+    } else if (isTableArray) {
+      state.errors.invalidTableArray(name.trim(), state.line, column);
+    } else {
+      state.errors.invalidTable(name.trim(), state.line, column);
     }
     
-    return Identifier.from(name.toString(), context);
+    return Identifier.INVALID;
   }
   
   private IdentifierConverter() {}
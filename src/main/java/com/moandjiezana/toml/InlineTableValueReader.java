@@ -1,77 +1,112 @@
 package com.moandjiezana.toml;
 
+import static com.moandjiezana.toml.IdentifierConverter.IDENTIFIER_CONVERTER;
 import static com.moandjiezana.toml.ValueReaders.VALUE_READERS;
 
 import java.util.HashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 class InlineTableValueReader implements ValueReader {
 
   static final InlineTableValueReader INLINE_TABLE_VALUE_READER = new InlineTableValueReader();
   
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("{");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("{", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger sharedIndex, Context context) {
-    AtomicInteger line = context.line;
-    int startLine = line.get();
-    int startIndex = sharedIndex.get();
+  public Object read(Source s, ParseState state) {
+    int startLine = state.line;
+    int startIndex = state.index;
+    int startColumn = state.column(startIndex);
     boolean inKey = true;
     boolean inValue = false;
     boolean terminated = false;
-    StringBuilder currentKey = new StringBuilder();
+    Identifier currentKey = Identifier.INVALID;
+    int keyStartIndex = startIndex + 1;
     HashMap<String, Object> results = new HashMap<String, Object>();
-    Results.Errors errors = new Results.Errors();
+    Results.Errors errors = state.errors;
+    Identifier identifier = state.identifier;
     
-    for (int i = sharedIndex.incrementAndGet(); sharedIndex.get() < s.length(); i = sharedIndex.incrementAndGet()) {
+    for (int i = ++state.index; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
       
       if (inValue && !Character.isWhitespace(c)) {
-        Object converted = VALUE_READERS.convert(s, sharedIndex, context.with(Identifier.from(currentKey.toString(), context)));
+        state.identifier = currentKey;
+        Object converted = VALUE_READERS.convert(s, state);
+        state.identifier = identifier;
         
         if (converted instanceof Results.Errors) {
-          errors.add((Results.Errors) converted);
           return errors;
         }
         
-        String currentKeyTrimmed = currentKey.toString().trim();
-        Object previous = results.put(currentKeyTrimmed, converted);
+        Object previous = results.put(currentKey.getName(), converted);
         
         if (previous != null) {
-          errors.duplicateKey(currentKeyTrimmed, context.line.get());
+          errors.duplicateKey(currentKey.getName(), state.line);
           return errors;
         }
         
-        currentKey = new StringBuilder();
         inValue = false;
       } else if (c == ',') {
         inKey = true;
         inValue = false;
-        currentKey = new StringBuilder();
+        keyStartIndex = i + 1;
       } else if (c == '=') {
+        int keyIndex = inKey ? keyStartIndex : i;
+        while (keyIndex < i && Character.isWhitespace(s.charAt(keyIndex))) {
+          keyIndex++;
+        }
+        state.index = keyIndex;
+        currentKey = IDENTIFIER_CONVERTER.convertKey(s, state);
+        state.index = i;
+        if (currentKey == Identifier.INVALID) {
+          return errors;
+        }
         inKey = false;
         inValue = true;
       } else if (c == '}') {
         terminated = true;
         break;
-      } else if (inKey) {
-        currentKey.append(c);
       }
     }
     
     if (!terminated) {
-      errors.unterminated(context.identifier.getName(), s.substring(startIndex), startLine);
-    }
-    
-    if (errors.hasErrors()) {
+      errors.unterminated(identifier.getName(), s.substring(startIndex), startLine, startColumn);
       return errors;
     }
     
     return results;
   }
 
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    int startLine = state.line;
+    int startIndex = state.index;
+    int startColumn = state.column(startIndex);
+    boolean inValue = false;
+    
+    for (int i = ++state.index; s.has(i); i = ++state.index) {
+      char c = s.charAt(i);
+      
+      if (inValue && !Character.isWhitespace(c)) {
+        Results.Errors errors = VALUE_READERS.skip(s, state);
+        if (errors != null) {
+          return errors;
+        }
+        inValue = false;
+      } else if (c == ',') {
+        inValue = false;
+      } else if (c == '=') {
+        inValue = true;
+      } else if (c == '}') {
+        return null;
+      }
+    }
+    
+    state.errors.unterminated(state.identifier.getName(), s.substring(startIndex), startLine, startColumn);
+    return state.errors;
+  }
+
   private InlineTableValueReader() {}
 }
@@ -0,0 +1,55 @@
+package com.moandjiezana.toml;
+
+import static com.moandjiezana.toml.DateValueReaderWriter.DATE_VALUE_READER_WRITER;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Writes {@link Instant}, {@link OffsetDateTime} and {@link ZonedDateTime} values. java.time is only touched once it is known to exist, so this class can be loaded on Java 6 and 7.
+ */
+class JavaTimeValueWriter implements ValueWriter {
+
+  static final JavaTimeValueWriter JAVA_TIME_VALUE_WRITER = new JavaTimeValueWriter();
+  private static final boolean JAVA_TIME_AVAILABLE = isJavaTimeAvailable();
+
+  @Override
+  public boolean canWrite(Object value) {
+    return JAVA_TIME_AVAILABLE && (value instanceof Instant || value instanceof OffsetDateTime || value instanceof ZonedDateTime);
+  }
+
+  @Override
+  public void write(Object value, WriterContext context) {
+    if (value instanceof Instant) {
+      DATE_VALUE_READER_WRITER.write(((Instant) value).toEpochMilli(), context);
+      return;
+    }
+    
+    OffsetDateTime dateTime = value instanceof ZonedDateTime ? ((ZonedDateTime) value).toOffsetDateTime() : (OffsetDateTime) value;
+    int millis = context.getDatePolicy().isShowFractionalSeconds() ? dateTime.getNano() / 1000000 : -1;
+    
+    DateValueReaderWriter.write(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), millis, dateTime.getOffset().getTotalSeconds() / 60, context);
+  }
+
+  @Override
+  public boolean isPrimitiveType() {
+    return true;
+  }
+  
+  private static boolean isJavaTimeAvailable() {
+    try {
+      Class.forName("java.time.Instant");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+  
+  private JavaTimeValueWriter() {}
+
+  @Override
+  public String toString() {
+    return "datetime";
+  }
+}
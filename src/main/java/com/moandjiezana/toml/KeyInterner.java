@@ -0,0 +1,103 @@
+package com.moandjiezana.toml;
+
+/**
+ * Shares a single String instance between keys with the same characters, so that the elements of a large table array do not each hold their own copies of the same keys.
+ * 
+ * Holds at most {@link #MAX_SIZE} keys, after which new keys are no longer shared. Not thread-safe: each parser has its own.
+ */
+class KeyInterner {
+  
+  static final int MAX_SIZE = 4096;
+  
+  private String[] keys = new String[64];
+  private int size;
+  
+  /**
+   * Looks up the characters between start and end without creating a String, unless the key has not been seen yet.
+   */
+  String intern(Source s, int start, int end) {
+    int hash = 0;
+    
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      
+      // Some sources expose encoded bytes, so only ASCII characters can be compared to the Strings held here
+      if (c >= 128) {
+        return intern(s.substring(start, end));
+      }
+      
+      hash = 31 * hash + c;
+    }
+    
+    int mask = keys.length - 1;
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      String key = keys[slot];
+      
+      if (key == null) {
+        return add(s.substring(start, end), slot);
+      } else if (key.hashCode() == hash && matches(key, s, start, end)) {
+        return key;
+      }
+    }
+  }
+  
+  String intern(String value) {
+    int hash = value.hashCode();
+    int mask = keys.length - 1;
+    
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      String key = keys[slot];
+      
+      if (key == null) {
+        return add(value, slot);
+      } else if (key.hashCode() == hash && key.equals(value)) {
+        return key;
+      }
+    }
+  }
+  
+  private String add(String key, int slot) {
+    if (size == MAX_SIZE) {
+      return key;
+    }
+    
+    keys[slot] = key;
+    size++;
+    
+    if (size * 2 > keys.length) {
+      String[] previous = keys;
+      keys = new String[previous.length * 2];
+      int mask = keys.length - 1;
+      
+      for (String previousKey : previous) {
+        if (previousKey != null) {
+          int newSlot = spread(previousKey.hashCode()) & mask;
+          while (keys[newSlot] != null) {
+            newSlot = (newSlot + 1) & mask;
+          }
+          keys[newSlot] = previousKey;
+        }
+      }
+    }
+    
+    return key;
+  }
+  
+  private static boolean matches(String key, Source s, int start, int end) {
+    if (key.length() != end - start) {
+      return false;
+    }
+    
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != s.charAt(start + i)) {
+        return false;
+      }
+    }
+    
+    return true;
+  }
+  
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
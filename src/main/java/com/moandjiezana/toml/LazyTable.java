@@ -0,0 +1,90 @@
+package com.moandjiezana.toml;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A table whose body has been deferred or which contains {@link LazyValue}s.
+ * 
+ * A deferred body is parsed by the first call to any method. Single lookups convert only the requested value, anything that iterates over the table converts all of them.
+ * 
+ * Like the other parsed tables, it cannot be modified.
+ */
+class LazyTable extends AbstractMap<String, Object> {
+  
+  private Container.Table deferred;
+  private Map<String, Object> values;
+  private String error;
+  private boolean resolved = false;
+
+  LazyTable(Map<String, Object> values) {
+    this.values = values;
+  }
+  
+  LazyTable(Container.Table deferred) {
+    this.deferred = deferred;
+  }
+  
+  @Override
+  public Object get(Object key) {
+    return LazyValue.resolve(table().get(key));
+  }
+  
+  @Override
+  public boolean containsKey(Object key) {
+    return table().containsKey(key);
+  }
+  
+  @Override
+  public int size() {
+    return table().size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    resolveAll();
+    
+    return Collections.unmodifiableMap(values).entrySet();
+  }
+  
+  private synchronized Map<String, Object> table() {
+    if (error != null) {
+      throw new IllegalStateException(error);
+    }
+    
+    if (deferred != null) {
+      try {
+        values = deferred.consumeBody();
+      } catch (IllegalStateException e) {
+        error = e.getMessage();
+        throw e;
+      }
+      deferred = null;
+    }
+    
+    return values;
+  }
+  
+  /**
+   * Adds the values of this table to map, without converting the lazy ones. Not for deferred tables.
+   */
+  synchronized void putUnresolved(Map<String, Object> map) {
+    map.putAll(values);
+  }
+  
+  private synchronized void resolveAll() {
+    if (resolved) {
+      return;
+    }
+    
+    for (Map.Entry<String, Object> entry : table().entrySet()) {
+      if (entry.getValue() instanceof LazyValue) {
+        entry.setValue(((LazyValue) entry.getValue()).get());
+      }
+    }
+    
+    resolved = true;
+  }
+}
@@ -0,0 +1,58 @@
+package com.moandjiezana.toml;
+
+/**
+ * A value whose extent in the source is known, but which is only converted the first time it is needed.
+ */
+class LazyValue {
+  
+  static Object resolve(Object value) {
+    return value instanceof LazyValue ? ((LazyValue) value).get() : value;
+  }
+  
+  private final ValueReader reader;
+  private final Source source;
+  private final int startIndex;
+  private final int endIndex;
+  private final Identifier identifier;
+  private final int line;
+  private final int column;
+  private volatile Object value;
+
+  LazyValue(ValueReader reader, Source source, int startIndex, int endIndex, Identifier identifier, int line, int column) {
+    this.reader = reader;
+    this.source = source;
+    this.startIndex = startIndex;
+    this.endIndex = endIndex;
+    this.identifier = identifier;
+    this.line = line;
+    this.column = column;
+  }
+
+  /**
+   * @throws IllegalStateException if the value is invalid
+   */
+  Object get() {
+    Object converted = value;
+    
+    if (converted != null) {
+      return converted;
+    }
+    
+    Results.Errors errors = new Results.Errors();
+    ParseState state = new ParseState(errors).moveTo(startIndex, line, startIndex - column + 1);
+    state.identifier = identifier;
+    converted = reader.read(source, state);
+    
+    if (!(converted instanceof Results.Errors) && state.index != endIndex) {
+      errors.invalidValue(identifier.getName(), source.substring(startIndex, source.has(endIndex) ? endIndex + 1 : endIndex), line, column);
+    }
+    
+    if (errors.hasErrors()) {
+      throw errors.toException();
+    }
+    
+    value = converted;
+    
+    return converted;
+  }
+}
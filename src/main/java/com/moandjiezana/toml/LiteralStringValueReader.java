@@ -1,24 +1,35 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
-
 class LiteralStringValueReader implements ValueReader {
 
   static final LiteralStringValueReader LITERAL_STRING_VALUE_READER = new LiteralStringValueReader();
   
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("'");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("'", index);
+  }
+
+  @Override
+  public Object read(Source s, ParseState state) {
+    int startIndex = state.index + 1;
+    Results.Errors unterminated = skip(s, state);
+    
+    if (unterminated != null) {
+      return unterminated;
+    }
+    
+    String substring = s.substring(startIndex, state.index);
+    
+    return substring;
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    int startLine = context.line.get();
+  public Results.Errors skip(Source s, ParseState state) {
+    int startLine = state.line;
     boolean terminated = false;
-    int startIndex = index.incrementAndGet();
+    int startIndex = ++state.index;
     
-    for (int i = index.get(); i < s.length(); i = index.incrementAndGet()) {
+    for (int i = state.index; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
       
       if (c == '\'') {
@@ -28,14 +39,11 @@ class LiteralStringValueReader implements ValueReader {
     }
     
     if (!terminated) {
-      Results.Errors errors = new Results.Errors();
-      errors.unterminated(context.identifier.getName(), s.substring(startIndex), startLine);
-      return errors;
+      state.errors.unterminated(state.identifier.getName(), s.substring(startIndex), startLine, state.column(startIndex - 1));
+      return state.errors;
     }
     
-    String substring = s.substring(startIndex, index.get());
-    
-    return substring;
+    return null;
   }
 
   private LiteralStringValueReader() {}
@@ -0,0 +1,102 @@
+package com.moandjiezana.toml;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A list of longs that stores its elements unboxed. They are only boxed when read through the {@link java.util.List} interface.
+ * 
+ * Can be modified like an {@link java.util.ArrayList}, except that null elements are not allowed.
+ */
+class LongList extends AbstractList<Long> implements RandomAccess {
+  
+  private long[] values = new long[8];
+  private int size;
+
+  @Override
+  public Long get(int index) {
+    checkIndex(index, size);
+    
+    return Long.valueOf(values[index]);
+  }
+  
+  @Override
+  public Long set(int index, Long element) {
+    checkIndex(index, size);
+    long previous = values[index];
+    values[index] = element.longValue();
+    
+    return Long.valueOf(previous);
+  }
+  
+  @Override
+  public void add(int index, Long element) {
+    checkIndex(index, size + 1);
+    long value = element.longValue();
+    ensureCapacity();
+    System.arraycopy(values, index, values, index + 1, size - index);
+    values[index] = value;
+    size++;
+    modCount++;
+  }
+  
+  @Override
+  public Long remove(int index) {
+    checkIndex(index, size);
+    long previous = values[index];
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    size--;
+    modCount++;
+    
+    return Long.valueOf(previous);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+  
+  long[] toLongArray() {
+    return Arrays.copyOf(values, size);
+  }
+  
+  /**
+   * @return a list with the same elements, which can be modified separately
+   */
+  LongList copy() {
+    LongList copy = new LongList();
+    copy.values = toLongArray();
+    copy.size = size;
+    
+    return copy;
+  }
+  
+  void append(long value) {
+    ensureCapacity();
+    values[size++] = value;
+  }
+  
+  private void ensureCapacity() {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(8, size * 2));
+    }
+  }
+  
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+  
+  /**
+   * Releases the unused part of the backing array once the list is complete.
+   */
+  LongList trim() {
+    if (size < values.length) {
+      values = Arrays.copyOf(values, size);
+    }
+    
+    return this;
+  }
+}
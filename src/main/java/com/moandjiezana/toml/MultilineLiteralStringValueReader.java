@@ -1,50 +1,63 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 class MultilineLiteralStringValueReader implements ValueReader {
   
   static final MultilineLiteralStringValueReader MULTILINE_LITERAL_STRING_VALUE_READER = new MultilineLiteralStringValueReader(); 
   
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("'''");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("'''", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    AtomicInteger line = context.line;
-    int startLine = line.get();
-    int originalStartIndex = index.get();
-    int startIndex = index.addAndGet(3);
-    int endIndex = -1;
+  public Object read(Source s, ParseState state) {
+    int startIndex = state.index + 3;
+    Results.Errors unterminated = skip(s, state);
+    
+    if (unterminated != null) {
+      return unterminated;
+    }
+    
+    int endIndex = state.index - 2;
+    
+    if (startIndex < endIndex && s.charAt(startIndex) == '\r' && s.charAt(startIndex + 1) == '\n') {
+      startIndex++;
+    }
+    
+    if (startIndex < endIndex && s.charAt(startIndex) == '\n') {
+      startIndex++;
+    }
     
-    if (s.charAt(startIndex) == '\n') {
-      startIndex = index.incrementAndGet();
-      line.incrementAndGet();
+    String value = s.substring(startIndex, endIndex);
+    if (value.indexOf('\r') > -1) {
+      value = value.replace("\r\n", "\n");
     }
+
+    return value;
+  }
+
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    int startLine = state.line;
+    int originalStartIndex = state.index;
+    int startColumn = state.column(originalStartIndex);
+    state.index += 3;
     
-    for (int i = startIndex; i < s.length(); i = index.incrementAndGet()) {
+    for (int i = state.index; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
 
       if (c == '\n') {
-        line.incrementAndGet();
+        state.newLine(i);
       }
       
-      if (c == '\'' && s.length() > i + 2 && s.charAt(i + 1) == '\'' && s.charAt(i + 2) == '\'') {
-        endIndex = i;
-        index.addAndGet(2);
-        break;
+      if (c == '\'' && s.has(i + 2) && s.charAt(i + 1) == '\'' && s.charAt(i + 2) == '\'') {
+        state.index += 2;
+        return null;
       }
     }
     
-    if (endIndex == -1) {
-      Results.Errors errors = new Results.Errors();
-      errors.unterminated(context.identifier.getName(), s.substring(originalStartIndex), startLine);
-      return errors;
-    }
-
-    return s.substring(startIndex, endIndex);
+    state.errors.unterminated(state.identifier.getName(), s.substring(originalStartIndex), startLine, startColumn);
+    return state.errors;
   }
 
   private MultilineLiteralStringValueReader() {}
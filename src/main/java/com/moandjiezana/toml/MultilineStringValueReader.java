@@ -1,53 +1,65 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 class MultilineStringValueReader implements ValueReader {
 
   static final MultilineStringValueReader MULTILINE_STRING_VALUE_READER = new MultilineStringValueReader();
 
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("\"\"\"");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("\"\"\"", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    AtomicInteger line = context.line;
-    int startLine = line.get();
-    int originalStartIndex = index.get();
-    int startIndex = index.addAndGet(3);
-    int endIndex = -1;
-    
-    if (s.charAt(startIndex) == '\n') {
-      startIndex = index.incrementAndGet();
-      line.incrementAndGet();
+  public Object read(Source s, ParseState state) {
+    int startLine = state.line;
+    int startColumn = state.column(state.index);
+    int startIndex = state.index + 3;
+    Results.Errors unterminated = skip(s, state);
+    
+    if (unterminated != null) {
+      return unterminated;
+    }
+    
+    int endIndex = state.index - 2;
+    
+    if (startIndex < endIndex && s.charAt(startIndex) == '\r' && s.charAt(startIndex + 1) == '\n') {
+      startIndex++;
     }
     
-    for (int i = startIndex; i < s.length(); i = index.incrementAndGet()) {
+    if (startIndex < endIndex && s.charAt(startIndex) == '\n') {
+      startIndex++;
+    }
+    
+    String value = StringValueReaderWriter.unescape(s, startIndex, endIndex, true, state.buffer);
+    
+    if (value == null) {
+      state.errors.invalidValue(state.identifier.getName(), s.substring(startIndex, endIndex), startLine, startColumn);
+      return state.errors;
+    }
+
+    return value;
+  }
+
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    int startLine = state.line;
+    int originalStartIndex = state.index;
+    int startColumn = state.column(originalStartIndex);
+    state.index += 3;
+    
+    for (int i = state.index; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
       
       if (c == '\n') {
-        line.incrementAndGet();
-      } else if (c == '"' && s.length() > i + 2 && s.charAt(i + 1) == '"' && s.charAt(i + 2) == '"') {
-        endIndex = i;
-        index.addAndGet(2);
-        break;
+        state.newLine(i);
+      } else if (c == '"' && s.has(i + 2) && s.charAt(i + 1) == '"' && s.charAt(i + 2) == '"') {
+        state.index += 2;
+        return null;
       }
     }
     
-    if (endIndex == -1) {
-      Results.Errors errors = new Results.Errors();
-      errors.unterminated(context.identifier.getName(), s.substring(originalStartIndex), startLine);
-      return errors;
-    }
-
-    s = s.substring(startIndex, endIndex);
-    s = s.replaceAll("\\\\\\s+", "");
-    s = StringValueReaderWriter.STRING_VALUE_READER_WRITER.replaceUnicodeCharacters(s);
-    s = StringValueReaderWriter.STRING_VALUE_READER_WRITER.replaceSpecialCharacters(s);
-
-    return s;
+    state.errors.unterminated(state.identifier.getName(), s.substring(originalStartIndex), startLine, startColumn);
+    return state.errors;
   }
 
   private MultilineStringValueReader() {
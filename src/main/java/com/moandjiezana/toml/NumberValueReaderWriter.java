@@ -1,57 +1,105 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 class NumberValueReaderWriter implements ValueReader, ValueWriter {
   static final NumberValueReaderWriter NUMBER_VALUE_READER_WRITER = new NumberValueReaderWriter();
   
+  static final int NONE = 0;
+  static final int INTEGER = 1;
+  static final int FLOAT = 2;
+  private static final int EXPONENT = 3;
+  private static final int MAX_EXPONENT = 100000;
+  private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+  private static final int MAX_EXACT_POWER_OF_TEN = 22;
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  
   @Override
-  public boolean canRead(String s) {
-    char firstChar = s.charAt(0);
+  public boolean canRead(Source s, int index) {
+    char firstChar = s.charAt(index);
     
     return firstChar == '+' || firstChar == '-' || Character.isDigit(firstChar);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
+  public Object read(Source s, ParseState state) {
+    int startIndex = state.index;
+    int type = readUnboxed(s, state);
+    
+    if (type == INTEGER) {
+      return Long.valueOf(state.number);
+    } else if (type == FLOAT) {
+      return Double.valueOf(Double.longBitsToDouble(state.number));
+    }
+    
+    return invalidValue(s, startIndex, state);
+  }
+  
+  /**
+   * Reads a number without boxing it. The integer, or the bits of the float, are left in {@link ParseState#number}.
+   * 
+   * @return {@link #INTEGER}, {@link #FLOAT} or {@link #NONE} if the number is invalid
+   */
+  int readUnboxed(Source s, ParseState state) {
+    int startIndex = state.index;
     boolean signable = true;
     boolean dottable = false;
     boolean exponentable = false;
     boolean terminatable = false;
     boolean underscorable = false;
-    String type = "";
-    StringBuilder sb = new StringBuilder();
+    int type = NONE;
+    boolean negative = false;
+    long significand = 0;
+    boolean overflow = false;
+    int fractionDigits = 0;
+    boolean negativeExponent = false;
+    int exponent = 0;
 
-    for (int i = index.get(); i < s.length(); i = index.incrementAndGet()) {
+    for (int i = state.index; s.has(i); i = ++state.index) {
       char c = s.charAt(i);
-      boolean notLastChar = s.length() > i + 1;
+      boolean notLastChar = s.has(i + 1);
 
-      if (Character.isDigit(c)) {
-        sb.append(c);
+      if (c >= '0' && c <= '9') {
+        int digit = c - '0';
         signable = false;
         terminatable = true;
-        if (type.isEmpty()) {
-          type = "integer";
+        if (type == NONE) {
+          type = INTEGER;
           dottable = true;
         }
         underscorable = notLastChar;
-        exponentable = !type.equals("exponent");
+        exponentable = type != EXPONENT;
+        
+        if (type == EXPONENT) {
+          if (exponent < MAX_EXPONENT) {
+            exponent = exponent * 10 + digit;
+          }
+        } else if (significand < (Long.MIN_VALUE + digit) / 10) {
+          overflow = true;
+        } else {
+          // Accumulated as a negative number, so that Long.MIN_VALUE fits
+          significand = significand * 10 - digit;
+          if (type == FLOAT) {
+            fractionDigits++;
+          }
+        }
       } else if ((c == '+' || c == '-') && signable && notLastChar) {
         signable = false;
         terminatable = false;
-        if (c == '-') {
-          sb.append('-');
+        if (type == EXPONENT) {
+          negativeExponent = c == '-';
+        } else {
+          negative = c == '-';
         }
       } else if (c == '.' && dottable && notLastChar) {
-        sb.append('.');
-        type = "float";
+        type = FLOAT;
         terminatable = false;
         dottable = false;
         exponentable = false;
         underscorable = false;
       } else if ((c == 'E' || c == 'e') && exponentable && notLastChar) {
-        sb.append('E');
-        type = "exponent";
+        type = EXPONENT;
         terminatable = false;
         signable = true;
         dottable = false;
@@ -61,26 +109,61 @@ class NumberValueReaderWriter implements ValueReader, ValueWriter {
         underscorable = false;
       } else {
         if (!terminatable) {
-          type = "";
+          type = NONE;
         }
-        index.decrementAndGet();
+        state.index--;
         break;
       }
     }
+    
+    int endIndex = s.has(state.index) ? state.index + 1 : state.index;
 
-    if (type.equals("integer")) {
-      return Long.valueOf(sb.toString());
-    } else if (type.equals("float")) {
-      return Double.valueOf(sb.toString());
-    } else if (type.equals("exponent")) {
-      String[] exponentString = sb.toString().split("E");
+    if (type == INTEGER && !overflow && (negative || significand != Long.MIN_VALUE)) {
+      state.number = negative ? significand : -significand;
+      
+      return INTEGER;
+    } else if (type == FLOAT || type == EXPONENT) {
+      int powerOfTen = (negativeExponent ? -exponent : exponent) - fractionDigits;
+      double value;
+      
+      if (!overflow && significand >= -MAX_EXACT_SIGNIFICAND && powerOfTen >= -MAX_EXACT_POWER_OF_TEN && powerOfTen <= MAX_EXACT_POWER_OF_TEN) {
+        // Both operands are exact doubles, so the result is correctly rounded
+        value = powerOfTen < 0 ? -significand / POWERS_OF_TEN[-powerOfTen] : -significand * POWERS_OF_TEN[powerOfTen];
+        value = negative ? -value : value;
+      } else {
+        value = Double.parseDouble(s.substring(startIndex, endIndex).replace("_", ""));
+      }
+      
+      state.number = Double.doubleToRawLongBits(value);
       
-      return Double.parseDouble(exponentString[0]) * Math.pow(10, Double.parseDouble(exponentString[1]));
-    } else {
-      Results.Errors errors = new Results.Errors();
-      errors.invalidValue(context.identifier.getName(), sb.toString(), context.line.get());
-      return errors;
+      return FLOAT;
     }
+    
+    return NONE;
+  }
+  
+  /**
+   * @param startIndex where the number read by {@link #readUnboxed(Source, ParseState)} started
+   */
+  Results.Errors invalidValue(Source s, int startIndex, ParseState state) {
+    int endIndex = s.has(state.index) ? state.index + 1 : state.index;
+    state.errors.invalidValue(state.identifier.getName(), s.substring(startIndex, endIndex), state.line, state.column(startIndex));
+    
+    return state.errors;
+  }
+
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    for (int i = state.index; s.has(i); i = ++state.index) {
+      char c = s.charAt(i);
+      
+      if (!Character.isDigit(c) && c != '+' && c != '-' && c != '.' && c != '_' && c != 'e' && c != 'E') {
+        state.index--;
+        break;
+      }
+    }
+    
+    return null;
   }
 
   @Override
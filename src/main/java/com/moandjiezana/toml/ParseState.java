@@ -0,0 +1,91 @@
+package com.moandjiezana.toml;
+
+/**
+ * The position of a parse in its source, shared by the parser and every reader it calls.
+ * 
+ * Not thread-safe: each parse has its own, which readers modify in place rather than passing positions around.
+ */
+class ParseState {
+  
+  /**
+   * The position of the character being read. Readers leave it on the last character of what they have read.
+   */
+  int index;
+  /**
+   * The current line, starting at 1
+   */
+  int line;
+  /**
+   * The position of the first character of the current line
+   */
+  int lineStart;
+  /**
+   * The key or table being read, if any
+   */
+  Identifier identifier;
+  /**
+   * The last number read by {@link NumberValueReaderWriter#readUnboxed(Source, ParseState)}: an integer, or the bits of a float
+   */
+  long number;
+  final Results.Errors errors;
+  /**
+   * Reused by the values read in this parse
+   */
+  final StringBuilder buffer;
+  /**
+   * Shares key instances between the keys read in this parse. May be null.
+   */
+  final KeyInterner keys;
+  
+  ParseState(Results.Errors errors) {
+    this(errors, new StringBuilder(), null);
+  }
+  
+  ParseState(Results.Errors errors, StringBuilder buffer, KeyInterner keys) {
+    this.errors = errors;
+    this.buffer = buffer;
+    this.keys = keys;
+  }
+  
+  /**
+   * Moves to the given position and line, which starts at lineStart.
+   */
+  ParseState moveTo(int index, int line, int lineStart) {
+    this.index = index;
+    this.line = line;
+    this.lineStart = lineStart;
+    
+    return this;
+  }
+  
+  /**
+   * Called for each line break.
+   * 
+   * @param newLineIndex the position of the \n
+   */
+  void newLine(int newLineIndex) {
+    line++;
+    lineStart = newLineIndex + 1;
+  }
+  
+  /**
+   * @param position on the current line
+   * @return the column of position, starting at 1
+   */
+  int column(int position) {
+    return position - lineStart + 1;
+  }
+  
+  /**
+   * @return the position of the first character of the line that contains position, for sources that are entirely available
+   */
+  static int lineStart(Source s, int position) {
+    int lineStart = position;
+    
+    while (lineStart > 0 && s.charAt(lineStart - 1) != '\n') {
+      lineStart--;
+    }
+    
+    return lineStart;
+  }
+}
@@ -0,0 +1,22 @@
+package com.moandjiezana.toml;
+
+/**
+ * A {@link TomlHandler} that receives table names already split into their parts, as the parser has them, rather than splitting them again.
+ */
+interface PathHandler extends TomlHandler {
+
+  /**
+   * @param path name, already split into its parts
+   */
+  boolean onTable(String name, String[] path, int line);
+
+  /**
+   * @param path name, already split into its parts
+   */
+  boolean onTableArray(String name, String[] path, int line);
+  
+  /**
+   * Called instead of {@link #onError(String)}, so that the errors are not formatted.
+   */
+  void onErrors(Results.Errors errors);
+}
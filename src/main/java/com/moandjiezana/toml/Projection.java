@@ -0,0 +1,82 @@
+package com.moandjiezana.toml;
+
+/**
+ * The key paths requested from a document.
+ * 
+ * A path selects a key, or a table and everything in it. "a.*" is the same as "a". Table array indexes are ignored, so "a[0].b" selects b in every element of a.
+ */
+class Projection {
+  
+  static final String[] ROOT = new String[0];
+  
+  static String[] split(String path) {
+    Keys.Key[] keys = Keys.split(path);
+    String[] names = new String[keys.length];
+    
+    for (int i = 0; i < keys.length; i++) {
+      names[i] = keys[i].name.trim();
+    }
+    
+    return names;
+  }
+  
+  private final String[][] paths;
+
+  Projection(String[] keyPaths) {
+    this.paths = new String[keyPaths.length][];
+    
+    for (int i = 0; i < keyPaths.length; i++) {
+      String keyPath = keyPaths[i].endsWith(".*") ? keyPaths[i].substring(0, keyPaths[i].length() - 2) : keyPaths[i];
+      paths[i] = split(keyPath);
+    }
+  }
+  
+  /**
+   * @param key may be null to only consider table
+   * @return true if a requested path is table.key, or a table containing it
+   */
+  boolean selects(String[] table, String key) {
+    int length = key != null ? table.length + 1 : table.length;
+    
+    for (String[] path : paths) {
+      if (path.length <= length && startsWith(table, key, path)) {
+        return true;
+      }
+    }
+    
+    return false;
+  }
+  
+  /**
+   * @param key may be null to only consider table
+   * @return true if a requested path is inside table.key
+   */
+  boolean leadsTo(String[] table, String key) {
+    int length = key != null ? table.length + 1 : table.length;
+    
+    for (String[] path : paths) {
+      if (path.length > length && startsWith(table, key, path)) {
+        return true;
+      }
+    }
+    
+    return false;
+  }
+  
+  /**
+   * @return true if the shorter of table.key and path starts the other
+   */
+  private static boolean startsWith(String[] table, String key, String[] path) {
+    int length = Math.min(key != null ? table.length + 1 : table.length, path.length);
+    
+    for (int i = 0; i < length; i++) {
+      String part = i < table.length ? table[i] : key;
+      
+      if (!part.equals(path[i])) {
+        return false;
+      }
+    }
+    
+    return true;
+  }
+}
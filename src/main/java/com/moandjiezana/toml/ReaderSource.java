@@ -0,0 +1,109 @@
+package com.moandjiezana.toml;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a {@link Reader} through a refillable buffer. Characters that have been released are dropped the next time the buffer fills up,
+ * so the buffer only grows when a single line or value is longer than it.
+ *
+ * Line endings are normalised to \n, as {@link java.io.BufferedReader#readLine()} would.
+ */
+class ReaderSource extends Source {
+
+  static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private final Reader reader;
+  private char[] buffer;
+  private int offset;
+  private int limit;
+  private int released;
+  private boolean pendingCarriageReturn;
+  private boolean eof;
+
+  ReaderSource(Reader reader) {
+    this(reader, DEFAULT_BUFFER_SIZE);
+  }
+
+  ReaderSource(Reader reader, int bufferSize) {
+    this(reader, new char[bufferSize]);
+  }
+
+  /**
+   * @param buffer used until a line or value does not fit in it. Its contents are overwritten.
+   */
+  ReaderSource(Reader reader, char[] buffer) {
+    this.reader = reader;
+    this.buffer = buffer;
+  }
+
+  @Override
+  boolean has(int index) {
+    while (index >= offset + limit && !eof) {
+      fill();
+    }
+
+    return index < offset + limit;
+  }
+
+  @Override
+  char charAt(int index) {
+    return buffer[index - offset];
+  }
+
+  @Override
+  String substring(int start, int end) {
+    return new String(buffer, start - offset, end - start);
+  }
+
+  @Override
+  void appendTo(StringBuilder sb, int start, int end) {
+    sb.append(buffer, start - offset, end - start);
+  }
+
+  @Override
+  void release(int index) {
+    released = Math.max(released, index);
+  }
+
+  private void fill() {
+    if (limit == buffer.length) {
+      int discardable = released - offset;
+
+      if (discardable > 0) {
+        System.arraycopy(buffer, discardable, buffer, 0, limit - discardable);
+        offset += discardable;
+        limit -= discardable;
+      } else {
+        char[] newBuffer = new char[buffer.length * 2];
+        System.arraycopy(buffer, 0, newBuffer, 0, limit);
+        buffer = newBuffer;
+      }
+    }
+
+    int read;
+    try {
+      read = reader.read(buffer, limit, buffer.length - limit);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    if (read == -1) {
+      eof = true;
+      return;
+    }
+
+    int end = limit + read;
+    for (int i = limit; i < end; i++) {
+      char c = buffer[i];
+
+      if (c == '\n' && pendingCarriageReturn) {
+        pendingCarriageReturn = false;
+        continue;
+      }
+
+      pendingCarriageReturn = c == '\r';
+      buffer[limit++] = pendingCarriageReturn ? '\n' : c;
+    }
+  }
+}
@@ -1,151 +1,192 @@
 package com.moandjiezana.toml;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
-class Results {
+class Results implements PathHandler {
   
+  /**
+   * Records errors as {@link TomlError}s, whose messages are only formatted when requested.
+   */
   static class Errors {
     
-    private final StringBuilder sb = new StringBuilder();
+    /**
+     * If true, only the first error is recorded and readers stop as soon as it has been found
+     */
+    final boolean failFast;
+    private List<TomlError> errors;
+    
+    Errors() {
+      this(false);
+    }
+    
+    Errors(boolean failFast) {
+      this.failFast = failFast;
+    }
     
     void duplicateTable(String table, int line) {
-      sb.append("Duplicate table definition on line ")
-        .append(line)
-        .append(": [")
-        .append(table)
-        .append("]");
+      add(new TomlError(TomlError.Kind.DUPLICATE_TABLE, table, null, line));
     }
 
-    public void tableDuplicatesKey(String table, AtomicInteger line) {
-      sb.append("Key already exists for table defined on line ")
-        .append(line.get())
-        .append(": [")
-        .append(table)
-        .append("]");
+    public void tableDuplicatesKey(String table, int line) {
+      add(new TomlError(TomlError.Kind.TABLE_DUPLICATES_KEY, table, null, line));
     }
 
-    public void keyDuplicatesTable(String key, AtomicInteger line) {
-      sb.append("Table already exists for key defined on line ")
-        .append(line.get())
-        .append(": ")
-        .append(key);
+    public void keyDuplicatesTable(String key, int line) {
+      add(new TomlError(TomlError.Kind.KEY_DUPLICATES_TABLE, key, null, line));
     }
     
-    void emptyImplicitTable(String table, int line) {
-      sb.append("Invalid table definition due to empty implicit table name: ")
-        .append(table);
+    void emptyImplicitTable(String table, int line, int column) {
+      add(new TomlError(TomlError.Kind.EMPTY_IMPLICIT_TABLE, table, null, line, column));
     }
     
-    void invalidTable(String table, int line) {
-      sb.append("Invalid table definition on line ")
-        .append(line)
-        .append(": ")
-        .append(table)
-        .append("]");
+    void invalidTable(String table, int line, int column) {
+      add(new TomlError(TomlError.Kind.INVALID_TABLE, table, null, line, column));
     }
     
     void duplicateKey(String key, int line) {
-      sb.append("Duplicate key");
-      if (line > -1) {
-        sb.append(" on line ")
-          .append(line);
-      }
-      sb.append(": ")
-        .append(key);
+      add(new TomlError(TomlError.Kind.DUPLICATE_KEY, key, null, line));
     }
     
-    void invalidTextAfterIdentifier(Identifier identifier, char text, int line) {
-      sb.append("Invalid text after key ")
-        .append(identifier.getName())
-        .append(" on line ")
-        .append(line)
-        .append(". Make sure to terminate the value or add a comment (#).");
+    void invalidTextAfterIdentifier(Identifier identifier, char text, int line, int column) {
+      add(new TomlError(TomlError.Kind.INVALID_TEXT_AFTER_KEY, identifier.getName(), null, line, column));
     }
     
-    void invalidKey(String key, int line) {
-      sb.append("Invalid key on line ")
-        .append(line)
-        .append(": ")
-        .append(key);
+    void invalidKey(String key, int line, int column) {
+      add(new TomlError(TomlError.Kind.INVALID_KEY, key, null, line, column));
     }
     
-    void invalidTableArray(String tableArray, int line) {
-      sb.append("Invalid table array definition on line ")
-        .append(line)
-        .append(": ")
-        .append(tableArray);
+    void invalidTableArray(String tableArray, int line, int column) {
+      add(new TomlError(TomlError.Kind.INVALID_TABLE_ARRAY, tableArray, null, line, column));
     }
     
-    void invalidValue(String key, String value, int line) {
-      sb.append("Invalid value on line ")
-        .append(line)
-        .append(": ")
-        .append(key)
-        .append(" = ")
-        .append(value);
+    void invalidValue(String key, String value, int line, int column) {
+      add(new TomlError(TomlError.Kind.INVALID_VALUE, key, value, line, column));
     }
     
-    void unterminatedKey(String key, int line) {
-      sb.append("Key is not followed by an equals sign on line ")
-        .append(line)
-        .append(": ")
-        .append(key);
+    void unterminatedKey(String key, int line, int column) {
+      add(new TomlError(TomlError.Kind.UNTERMINATED_KEY, key, null, line, column));
     }
     
-    void unterminated(String key, String value, int line) {
-      sb.append("Unterminated value on line ")
-        .append(line)
-        .append(": ")
-        .append(key)
-        .append(" = ")
-        .append(value.trim());
+    void unterminated(String key, String value, int line, int column) {
+      add(new TomlError(TomlError.Kind.UNTERMINATED_VALUE, key, value, line, column));
     }
 
-    public void heterogenous(String key, int line) {
-      sb.append(key)
-        .append(" becomes a heterogeneous array on line ")
-        .append(line);
+    public void heterogenous(String key, int line, int column) {
+      add(new TomlError(TomlError.Kind.HETEROGENEOUS_ARRAY, key, null, line, column));
     }
     
     boolean hasErrors() {
-      return sb.length() > 0;
+      return errors != null;
+    }
+    
+    /**
+     * @return an unmodifiable list, empty if there are no errors
+     */
+    List<TomlError> list() {
+      return errors != null ? Collections.unmodifiableList(errors) : Collections.<TomlError>emptyList();
+    }
+    
+    /**
+     * @return an exception containing these errors, which must not be empty
+     */
+    TomlParseException toException() {
+      return new TomlParseException(list());
+    }
+    
+    /**
+     * Passes these errors to handler, without formatting them if it is a {@link PathHandler}.
+     */
+    void reportTo(TomlHandler handler) {
+      if (handler instanceof PathHandler) {
+        ((PathHandler) handler).onErrors(this);
+      } else {
+        handler.onError(toString());
+      }
     }
     
     @Override
     public String toString() {
+      StringBuilder sb = new StringBuilder();
+      if (errors != null) {
+        for (TomlError error : errors) {
+          error.appendTo(sb);
+        }
+      }
+      
       return sb.toString();
     }
 
     public void add(Errors other) {
-      sb.append(other.sb);
+      if (other.errors != null) {
+        for (TomlError error : other.errors) {
+          add(error);
+        }
+      }
+    }
+    
+    void add(String message) {
+      add(new TomlError(TomlError.Kind.OTHER, null, message, -1));
+    }
+    
+    /**
+     * Forgets all errors. Lists returned by {@link #list()} are not modified.
+     */
+    void clear() {
+      errors = null;
+    }
+    
+    private void add(TomlError error) {
+      if (errors == null) {
+        errors = new ArrayList<TomlError>(2);
+      } else if (failFast) {
+        return;
+      }
+      
+      errors.add(error);
     }
   }
   
-  final Errors errors = new Errors();
-  private final Set<String> tables = new HashSet<String>();
+  final Errors errors;
   private final Deque<Container> stack = new ArrayDeque<Container>();
 
   Results() {
-    stack.push(new Container.Table(""));
+    this(false);
+  }
+  
+  /**
+   * @param failFast if true, only the first error is recorded
+   */
+  Results(boolean failFast) {
+    this(new Container.Table(""), failFast);
+  }
+  
+  /**
+   * @param root the table that keys and tables are added to
+   */
+  Results(Container.Table root) {
+    this(root, false);
+  }
+  
+  private Results(Container.Table root, boolean failFast) {
+    this.errors = new Errors(failFast);
+    stack.push(root);
   }
 
-  void addValue(String key, Object value, AtomicInteger line) {
+  void addValue(String key, Object value, int line) {
     Container currentTable = stack.peek();
     
     if (value instanceof Map) {
-      String path = getInlineTablePath(key);
+      String[] path = getInlineTablePath(key);
       if (path == null) {
         startTable(key, line);
-      } else if (path.isEmpty()) {
-        startTables(Identifier.from(key, null), line);
       } else {
-        startTables(Identifier.from(path, null), line);
+        startTables(join(path), path, line);
       }
       @SuppressWarnings("unchecked")
       Map<String, Object> valueMap = (Map<String, Object>) value;
@@ -159,21 +200,72 @@ class Results {
       if (currentTable.get(key) instanceof Container) {
         errors.keyDuplicatesTable(key, line);
       } else {
-        errors.duplicateKey(key, line != null ? line.get() : -1);
+        errors.duplicateKey(key, line);
       }
     }
   }
 
-  void startTableArray(Identifier identifier, AtomicInteger line) {
-    String tableName = identifier.getBareName();
+  @Override
+  public boolean onTable(String name, int line) {
+    startTables(name, line);
+    
+    return !errors.hasErrors();
+  }
+  
+  @Override
+  public boolean onTable(String name, String[] path, int line) {
+    startTables(name, path, line);
+    
+    return !errors.hasErrors();
+  }
+  
+  @Override
+  public boolean onTableArray(String name, int line) {
+    startTableArray(name, line);
+    
+    return !errors.hasErrors();
+  }
+  
+  @Override
+  public boolean onTableArray(String name, String[] path, int line) {
+    startTableArray(name, path, line);
+    
+    return !errors.hasErrors();
+  }
+  
+  @Override
+  public boolean onKeyValue(String key, Object value, int line) {
+    addValue(key, value, line);
+    
+    return !errors.hasErrors();
+  }
+  
+  @Override
+  public void onError(String message) {
+    errors.add(message);
+  }
+  
+  @Override
+  public void onErrors(Errors errors) {
+    this.errors.add(errors);
+  }
+
+  void startTableArray(String tableName, int line) {
+    startTableArray(tableName, split(tableName), line);
+  }
+
+  private void startTableArray(String tableName, String[] tableParts, int line) {
     while (stack.size() > 1) {
       stack.pop();
     }
 
-    Keys.Key[] tableParts = Keys.split(tableName);
     for (int i = 0; i < tableParts.length; i++) {
-      String tablePart = tableParts[i].name;
+      String tablePart = tableParts[i];
       Container currentContainer = stack.peek();
+      
+      if (currentContainer instanceof Container.Table && !parseDeferredBody((Container.Table) currentContainer)) {
+        break;
+      }
 
       if (currentContainer.get(tablePart) instanceof Container.TableArray) {
         Container.TableArray currentTableArray = (Container.TableArray) currentContainer.get(tablePart);
@@ -197,27 +289,32 @@ class Results {
           stack.push(((Container.TableArray) newContainer).getCurrent());
         }
       } else {
-        errors.duplicateTable(tableName, line.get());
+        errors.duplicateTable(tableName, line);
         break;
       }
     }
   }
 
-  void startTables(Identifier id, AtomicInteger line) {
-    String tableName = id.getBareName();
-    
+  void startTables(String tableName, int line) {
+    startTables(tableName, split(tableName), line);
+  }
+
+  private void startTables(String tableName, String[] tableParts, int line) {
     while (stack.size() > 1) {
       stack.pop();
     }
 
-    Keys.Key[] tableParts = Keys.split(tableName);
     for (int i = 0; i < tableParts.length; i++) {
-      String tablePart = tableParts[i].name;
+      String tablePart = tableParts[i];
       Container currentContainer = stack.peek();
+      
+      if (currentContainer instanceof Container.Table && !parseDeferredBody((Container.Table) currentContainer)) {
+        break;
+      }
       if (currentContainer.get(tablePart) instanceof Container) {
         Container nextTable = (Container) currentContainer.get(tablePart);
         if (i == tableParts.length - 1 && !nextTable.isImplicit()) {
-          errors.duplicateTable(tableName, line.get());
+          errors.duplicateTable(tableName, line);
           return;
         }
         stack.push(nextTable);
@@ -233,6 +330,49 @@ class Results {
     }
   }
 
+  /**
+   * @return false if the table's deferred body contains errors, which are added to this instance's
+   */
+  private boolean parseDeferredBody(Container.Table table) {
+    Errors bodyErrors = table.parseDeferredBody();
+    
+    if (bodyErrors != null) {
+      errors.add(bodyErrors);
+      return false;
+    }
+    
+    return true;
+  }
+
+  /**
+   * Prepares this instance to receive another document. The values and errors of the previous one are not affected.
+   */
+  Results reset() {
+    stack.clear();
+    stack.push(new Container.Table(""));
+    errors.clear();
+    
+    return this;
+  }
+
+  /**
+   * Adds keys that have already been converted, for example by parsing a section on its own, to the current table.
+   */
+  void addSection(Map<String, Object> section, int line) {
+    String duplicate = currentTable().addSection(section);
+    
+    if (duplicate != null) {
+      errors.keyDuplicatesTable(duplicate, line);
+    }
+  }
+
+  /**
+   * @return the table that keys are currently being added to
+   */
+  Container.Table currentTable() {
+    return (Container.Table) stack.peek();
+  }
+
   /**
    * Warning: After this method has been called, this instance is no longer usable.
    */
@@ -243,7 +383,7 @@ class Results {
     return ((Container.Table) values).consume();
   }
 
-  private Container startTable(String tableName, AtomicInteger line) {
+  private Container startTable(String tableName, int line) {
     Container newTable = new Container.Table(tableName);
     addValue(tableName, newTable, line);
     stack.push(newTable);
@@ -251,7 +391,7 @@ class Results {
     return newTable;
   }
 
-  private Container startTable(String tableName, boolean implicit, AtomicInteger line) {
+  private Container startTable(String tableName, boolean implicit, int line) {
     Container newTable = new Container.Table(tableName, implicit);
     addValue(tableName, newTable, line);
     stack.push(newTable);
@@ -259,9 +399,13 @@ class Results {
     return newTable;
   }
   
-  private String getInlineTablePath(String key) {
+  /**
+   * @return the names of the tables leading to key, followed by key, or null if key is inside a table array
+   */
+  private String[] getInlineTablePath(String key) {
     Iterator<Container> descendingIterator = stack.descendingIterator();
-    StringBuilder sb = new StringBuilder();
+    List<String> path = new ArrayList<String>();
+    descendingIterator.next();
     
     while (descendingIterator.hasNext()) {
       Container next = descendingIterator.next();
@@ -275,21 +419,35 @@ class Results {
         break;
       }
       
+      path.add(table.name);
+    }
+    
+    path.add(key);
+    
+    return path.toArray(new String[path.size()]);
+  }
+  
+  static String join(String[] path) {
+    StringBuilder sb = new StringBuilder();
+    
+    for (String part : path) {
       if (sb.length() > 0) {
         sb.append('.');
       }
-      
-      sb.append(table.name);
+      sb.append(part);
     }
     
-    if (sb.length() > 0) {
-      sb.append('.');
+    return sb.toString();
+  }
+  
+  static String[] split(String tableName) {
+    Keys.Key[] keys = Keys.split(tableName);
+    String[] names = new String[keys.length];
+    
+    for (int i = 0; i < keys.length; i++) {
+      names[i] = keys[i].name;
     }
-
-    sb.append(key)
-      .insert(0, '[')
-      .append(']');
     
-    return sb.toString();
+    return names;
   }
-}
\ No newline at end of file
+}
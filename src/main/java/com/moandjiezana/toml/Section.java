@@ -0,0 +1,181 @@
+package com.moandjiezana.toml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys that follow a table header, or that start a document, parsed on their own and converted to a table.
+ *
+ * Sections are added to a {@link Results} in document order, which only has to create the tables named by their headers.
+ */
+class Section {
+
+  /**
+   * null for the keys before the first table header
+   */
+  final Identifier header;
+  final String[] path;
+  final int startIndex;
+  final int startLine;
+  /**
+   * Receives the section's keys while it is being parsed
+   */
+  private Results results;
+  private Map<String, Object> values;
+  /**
+   * true if values contains lists, which can be modified. Only checked when the values are first copied.
+   */
+  private Boolean mutable;
+
+  Section(Identifier header, int startIndex, int startLine) {
+    this(header, header != null ? header.getPath() : null, startIndex, startLine);
+    this.results = new Results();
+  }
+
+  private Section(Identifier header, String[] path, int startIndex, int startLine) {
+    this.header = header;
+    this.path = path;
+    this.startIndex = startIndex;
+    this.startLine = startLine;
+  }
+
+  void onKeyValue(String key, Object value, int line) {
+    results.onKeyValue(key, value, line);
+  }
+
+  /**
+   * Converts the keys once the section has been parsed, and adds it to sections.
+   *
+   * @return false if the keys contain errors
+   */
+  boolean finish(List<Section> sections) {
+    if (results.errors.hasErrors()) {
+      return false;
+    }
+
+    values = results.consume();
+    results = null;
+    sections.add(this);
+
+    return true;
+  }
+
+  /**
+   * Adds the table header, if any, and the values of this section to the current table of results.
+   *
+   * @param copy if true, lists are copied, so that the values can be added to several results
+   * @return false if the header or the keys conflict with what results already contains
+   */
+  boolean addTo(Results results, boolean copy) {
+    if (header != null) {
+      if (header.isTableArray()) {
+        results.onTableArray(header.getBareName(), path, startLine);
+      } else {
+        results.onTable(header.getBareName(), path, startLine);
+      }
+
+      if (results.errors.hasErrors()) {
+        return false;
+      }
+    }
+
+    if (copy && mutable == null) {
+      mutable = isMutable(values);
+    }
+
+    results.addSection(copy && mutable ? copy(values) : values, startLine);
+
+    return !results.errors.hasErrors();
+  }
+
+  /**
+   * @return this section, at a position shifted by an edit before it
+   */
+  Section moveBy(int shift, int lineShift) {
+    if (shift == 0 && lineShift == 0) {
+      return this;
+    }
+
+    Section moved = new Section(header, path, startIndex + shift, startLine + lineShift);
+    moved.values = values;
+    moved.mutable = mutable;
+
+    return moved;
+  }
+
+  /**
+   * @return true if value is or contains a list, which could be modified
+   */
+  private static boolean isMutable(Object value) {
+    if (value instanceof List) {
+      return true;
+    }
+
+    if (value instanceof Map) {
+      for (Object item : ((Map<?, ?>) value).values()) {
+        if (isMutable(item)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static Object copy(Object value) {
+    if (value instanceof LongList) {
+      return ((LongList) value).copy();
+    }
+
+    if (value instanceof DoubleList) {
+      return ((DoubleList) value).copy();
+    }
+
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      List<Object> copy = new ArrayList<Object>(list.size());
+
+      for (Object item : list) {
+        copy.add(copy(item));
+      }
+
+      return copy;
+    }
+
+    if (value instanceof Map && isMutable(value)) {
+      @SuppressWarnings("unchecked")
+      Map<String, Object> map = (Map<String, Object>) value;
+
+      return copy(map);
+    }
+
+    return value;
+  }
+
+  private static Map<String, Object> copy(Map<String, Object> map) {
+    if (map.size() <= CompactMap.MAX_SIZE) {
+      String[] keys = new String[map.size()];
+      Object[] values = new Object[map.size()];
+      int i = 0;
+
+      for (Map.Entry<String, Object> entry : map.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = copy(entry.getValue());
+        i++;
+      }
+
+      return new CompactMap(keys, values);
+    }
+
+    Map<String, Object> copy = new HashMap<String, Object>(map.size() * 2);
+
+    for (Map.Entry<String, Object> entry : map.entrySet()) {
+      copy.put(entry.getKey(), copy(entry.getValue()));
+    }
+
+    return Collections.unmodifiableMap(copy);
+  }
+}
@@ -0,0 +1,154 @@
+package com.moandjiezana.toml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.moandjiezana.toml.TomlEventReader.Event;
+
+/**
+ * The sections of the last version of a document that was read, each of which starts at a table header or at the start of the document.
+ *
+ * Each section's keys are parsed on their own and kept as a table. When a new version is read, the text that it has in common with the previous
+ * version at its start and at its end is skipped: only the sections that overlap the rest are parsed again, until a table header is found
+ * at the same place in the unchanged end of the document. The tables of the other sections are re-used, and the tables are assembled again from the
+ * headers, which does not depend on the number of keys in the document.
+ *
+ * Only the last version's text is kept, to be compared to the next one. Sections whose values contain lists are copied each time they are assembled,
+ * so that the lists of one version can be modified without changing those of another.
+ */
+class Sections {
+
+  private String text;
+  private List<Section> sections;
+
+  /**
+   * @return the values of tomlString, or its errors as found by a full read
+   */
+  Results read(String tomlString) {
+    Source source = new StringSource(tomlString);
+    List<Section> current = sections != null ? update(tomlString, source) : parse(source, 0, 0, 1, tomlString.length(), null, 0);
+
+    if (current == null) {
+      text = null;
+      sections = null;
+
+      return TomlParser.run(source);
+    }
+
+    text = tomlString;
+    sections = current;
+
+    Results results = assemble(current);
+
+    // Conflicts between sections are reported by a full read, so that errors are the same as read()'s
+    return results.errors.hasErrors() ? TomlParser.run(source) : results;
+  }
+
+  private List<Section> update(String tomlString, Source source) {
+    int length = Math.min(text.length(), tomlString.length());
+    int prefix = 0;
+
+    while (prefix < length && text.charAt(prefix) == tomlString.charAt(prefix)) {
+      prefix++;
+    }
+
+    if (prefix == text.length() && prefix == tomlString.length()) {
+      return sections;
+    }
+
+    int suffix = 0;
+
+    while (suffix < length - prefix && text.charAt(text.length() - 1 - suffix) == tomlString.charAt(tomlString.length() - 1 - suffix)) {
+      suffix++;
+    }
+
+    int first = indexOf(sections, prefix);
+
+    if (first > 0 && sections.get(first).startIndex == prefix) {
+      // Text inserted or removed just before a header belongs to the previous section
+      first--;
+    }
+
+    Section start = sections.get(first);
+    List<Section> parsed = new ArrayList<Section>(sections.subList(0, first));
+
+    return parse(source, first, start.startIndex, start.startLine, tomlString.length() - suffix, parsed, tomlString.length() - text.length());
+  }
+
+  /**
+   * Parses sections from startIndex until the end of the source, or until a table header at or after changedEndIndex is found where
+   * a section of the previous version started. The sections of the previous version are re-used from there.
+   *
+   * @param first the number of sections before startIndex
+   * @param parsed the sections before startIndex, or null if there is no previous version
+   * @param shift the difference in length between this version and the previous one
+   * @return all the sections, or null if the source contains errors
+   */
+  private List<Section> parse(Source source, int first, int startIndex, int startLine, int changedEndIndex, List<Section> parsed, int shift) {
+    List<Section> current = parsed != null ? parsed : new ArrayList<Section>();
+    TomlParser parser = new TomlParser(source, new Results.Errors(), false, false, startIndex, startLine);
+    Section section = first == 0 ? new Section(null, 0, 1) : null;
+
+    for (Event event = parser.next(); event != null; event = parser.next()) {
+      if (event == Event.TABLE_START || event == Event.TABLE_ARRAY_ELEMENT) {
+        if (section != null && !section.finish(current)) {
+          return null;
+        }
+
+        int previous = parsed != null && parser.eventIndex >= changedEndIndex ? indexOf(sections, parser.eventIndex - shift) : -1;
+
+        if (previous > -1 && sections.get(previous).startIndex == parser.eventIndex - shift) {
+          int lineShift = parser.eventLine - sections.get(previous).startLine;
+
+          for (Section moved : sections.subList(previous, sections.size())) {
+            current.add(moved.moveBy(shift, lineShift));
+          }
+
+          return current;
+        }
+
+        section = new Section(parser.identifier, parser.eventIndex, parser.eventLine);
+      } else if (event == Event.VALUE) {
+        section.onKeyValue(parser.identifier.getName(), parser.value, parser.eventLine);
+      }
+    }
+
+    if (parser.errors.hasErrors() || (section != null && !section.finish(current))) {
+      return null;
+    }
+
+    return current;
+  }
+
+  private static Results assemble(List<Section> sections) {
+    Results results = new Results();
+
+    for (Section section : sections) {
+      if (!section.addTo(results, true)) {
+        break;
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * @return the index of the last section that starts at or before position
+   */
+  private static int indexOf(List<Section> sections, int position) {
+    int low = 0;
+    int high = sections.size() - 1;
+
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+
+      if (sections.get(middle).startIndex <= position) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+
+    return low;
+  }
+}
@@ -0,0 +1,80 @@
+package com.moandjiezana.toml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.moandjiezana.toml.TomlEventReader.Event;
+
+/**
+ * Part of a document that starts with a table header, or at the start of the document, and is parsed independently of the rest of it.
+ *
+ * Its keys are converted to tables by the thread that parses it, one {@link Section} per table header. The sections are then added to the results in document order.
+ */
+class Segment implements Callable<Segment> {
+
+  private final Source source;
+  private final int startIndex;
+  private final int startLine;
+  private final boolean lazyValues;
+  private final Projection projection;
+  private final boolean failFast;
+  private final List<Section> sections = new ArrayList<Section>();
+  private boolean hasErrors;
+
+  /**
+   * @param endIndex the position of the next segment, or -1 if this segment ends with source
+   */
+  Segment(Source source, int startIndex, int endIndex, int startLine, boolean lazyValues, Projection projection, boolean failFast) {
+    this.source = new BoundedSource(source, endIndex > -1 ? endIndex : Integer.MAX_VALUE);
+    this.startIndex = startIndex;
+    this.startLine = startLine;
+    this.lazyValues = lazyValues;
+    this.projection = projection;
+    this.failFast = failFast;
+  }
+
+  @Override
+  public Segment call() {
+    TomlParser parser = new TomlParser(source, new Results.Errors(failFast), lazyValues, false, startIndex, startLine);
+    parser.projection = projection;
+    Section section = startIndex == 0 ? new Section(null, 0, 1) : null;
+
+    for (Event event = parser.next(); event != null; event = parser.next()) {
+      if (event == Event.TABLE_START || event == Event.TABLE_ARRAY_ELEMENT) {
+        if (section != null && !section.finish(sections)) {
+          hasErrors = true;
+          return this;
+        }
+
+        section = new Section(parser.identifier, parser.eventIndex, parser.eventLine);
+      } else if (event == Event.VALUE) {
+        section.onKeyValue(parser.identifier.getName(), parser.value, parser.eventLine);
+      }
+    }
+
+    hasErrors = parser.errors.hasErrors() || (section != null && !section.finish(sections));
+
+    return this;
+  }
+
+  /**
+   * @return false if the sections conflict with what results already contains
+   */
+  boolean addTo(Results results) {
+    for (Section section : sections) {
+      if (!section.addTo(results, false)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * @return true if the segment contains a syntax error or a key defined twice in the same table
+   */
+  boolean hasErrors() {
+    return hasErrors;
+  }
+}
@@ -0,0 +1,61 @@
+package com.moandjiezana.toml;
+
+/**
+ * The characters of a TOML document, addressed by their absolute position in the document.
+ */
+abstract class Source {
+
+  /**
+   * @param index absolute position in the document
+   * @return true if there is a character at index. May read ahead in the underlying input.
+   */
+  abstract boolean has(int index);
+
+  /**
+   * @param index must already have been checked with {@link #has(int)}
+   */
+  abstract char charAt(int index);
+
+  abstract String substring(int start, int end);
+
+  /**
+   * Signals that characters before index will no longer be requested, so implementations may discard them.
+   */
+  void release(int index) {}
+
+  /**
+   * Appends the same characters as {@link #substring(int, int)}, without creating a String where possible.
+   */
+  void appendTo(StringBuilder sb, int start, int end) {
+    sb.append(substring(start, end));
+  }
+
+  String substring(int start) {
+    int end = start;
+    while (has(end)) {
+      end++;
+    }
+
+    return substring(start, end);
+  }
+
+  boolean startsWith(String prefix, int index) {
+    for (int i = 0; i < prefix.length(); i++) {
+      if (!has(index + i) || charAt(index + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  int indexOf(char c, int fromIndex) {
+    for (int i = fromIndex; has(i); i++) {
+      if (charAt(i) == c) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+}
@@ -0,0 +1,45 @@
+package com.moandjiezana.toml;
+
+class StringSource extends Source {
+
+  private final String s;
+
+  StringSource(String s) {
+    this.s = s;
+  }
+
+  @Override
+  boolean has(int index) {
+    return index < s.length();
+  }
+
+  @Override
+  char charAt(int index) {
+    return s.charAt(index);
+  }
+
+  @Override
+  String substring(int start, int end) {
+    return s.substring(start, end);
+  }
+
+  @Override
+  void appendTo(StringBuilder sb, int start, int end) {
+    sb.append(s, start, end);
+  }
+
+  @Override
+  String substring(int start) {
+    return s.substring(start);
+  }
+
+  @Override
+  boolean startsWith(String prefix, int index) {
+    return s.startsWith(prefix, index);
+  }
+
+  @Override
+  int indexOf(char c, int fromIndex) {
+    return s.indexOf(c, fromIndex);
+  }
+}
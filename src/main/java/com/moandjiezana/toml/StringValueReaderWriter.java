@@ -2,14 +2,10 @@ package com.moandjiezana.toml;
 
 import java.net.URI;
 import java.net.URL;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 class StringValueReaderWriter implements ValueReader, ValueWriter {
   
   static final StringValueReaderWriter STRING_VALUE_READER_WRITER = new StringValueReaderWriter();
-  private static final Pattern UNICODE_REGEX = Pattern.compile("\\\\[uU](.{4})");
 
   static private final String[] specialCharacterEscapes = new String[93];
 
@@ -24,71 +20,185 @@ class StringValueReaderWriter implements ValueReader, ValueWriter {
   }
 
   @Override
-  public boolean canRead(String s) {
-    return s.startsWith("\"");
+  public boolean canRead(Source s, int index) {
+    return s.startsWith("\"", index);
   }
 
   @Override
-  public Object read(String s, AtomicInteger index, Context context) {
-    int startIndex = index.incrementAndGet();
-    int endIndex = -1;
+  public Object read(Source s, ParseState state) {
+    int startIndex = state.index + 1;
+    Results.Errors unterminated = skip(s, state);
 
-    for (int i = index.get(); i < s.length(); i = index.incrementAndGet()) {
-      char ch = s.charAt(i);
-      if (ch == '"' && s.charAt(i - 1) != '\\') {
-        endIndex = i;
-        break;
-      }
-    }
-
-    if (endIndex == -1) {
-      Results.Errors errors = new Results.Errors();
-      errors.unterminated(context.identifier.getName(), s.substring(startIndex - 1), context.line.get());
-      return errors;
+    if (unterminated != null) {
+      return unterminated;
     }
     
-    String raw = s.substring(startIndex, endIndex);
-    s = replaceUnicodeCharacters(raw);
-    s = replaceSpecialCharacters(s);
+    String value = unescape(s, startIndex, state.index, false, state.buffer);
     
-    if (s == null) {
-      Results.Errors errors = new Results.Errors();
-      errors.invalidValue(context.identifier.getName(), raw, context.line.get());
-      return errors;
+    if (value == null) {
+      state.errors.invalidValue(state.identifier.getName(), s.substring(startIndex, state.index), state.line, state.column(startIndex - 1));
+      return state.errors;
     }
 
-    return s;
+    return value;
   }
 
-  String replaceUnicodeCharacters(String value) {
-    Matcher unicodeMatcher = UNICODE_REGEX.matcher(value);
+  @Override
+  public Results.Errors skip(Source s, ParseState state) {
+    int startIndex = ++state.index;
 
-    while (unicodeMatcher.find()) {
-      value = value.replace(unicodeMatcher.group(), new String(Character.toChars(Integer.parseInt(unicodeMatcher.group(1), 16))));
+    for (int i = state.index; s.has(i); i = ++state.index) {
+      char ch = s.charAt(i);
+      if (ch == '\\') {
+        ++state.index;
+      } else if (ch == '"') {
+        return null;
+      }
     }
-    return value;
-  }
 
-  String replaceSpecialCharacters(String s) {
-    for (int i = 0; i < s.length() - 1; i++) {
-      char ch = s.charAt(i);
-      char next = s.charAt(i + 1);
+    state.errors.unterminated(state.identifier.getName(), s.substring(startIndex - 1), state.line, state.column(startIndex - 1));
+    return state.errors;
+  }
 
-      if (ch == '\\' && next == '\\') {
-        i++;
-      } else if (ch == '\\' && !(next == 'b' || next == 'f' || next == 'n' || next == 't' || next == 'r' || next == '"' || next == '\\')) {
+  /**
+   * Validates and unescapes the characters between start and end in a single pass.
+   * \\U is followed by eight hex digits, or by four as this parser has always accepted.
+   * 
+   * @param multiline if true, \\r\\n becomes \\n and a backslash followed by whitespace is removed along with all the whitespace that follows it
+   * @param buffer holds the unescaped characters. Not used when there is nothing to unescape.
+   * @return null if there is an invalid escape sequence
+   */
+  static String unescape(Source s, int start, int end, boolean multiline, StringBuilder buffer) {
+    StringBuilder sb = null;
+    int copied = start;
+    
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      
+      if (c == '\r' && multiline && i + 1 < end && s.charAt(i + 1) == '\n') {
+        if (sb == null) {
+          sb = buffer;
+          sb.setLength(0);
+        }
+        s.appendTo(sb, copied, i);
+        copied = i + 1;
+        continue;
+      }
+      
+      if (c != '\\') {
+        continue;
+      }
+      
+      if (sb == null) {
+        sb = buffer;
+        sb.setLength(0);
+      }
+      s.appendTo(sb, copied, i);
+      
+      if (++i == end) {
         return null;
       }
+      
+      char next = s.charAt(i);
+      if (next == 'b') {
+        sb.append('\b');
+      } else if (next == 't') {
+        sb.append('\t');
+      } else if (next == 'n') {
+        sb.append('\n');
+      } else if (next == 'f') {
+        sb.append('\f');
+      } else if (next == 'r') {
+        sb.append('\r');
+      } else if (next == '"' || next == '\\') {
+        sb.append(next);
+      } else if (next == 'u' || next == 'U') {
+        int codePoint = next == 'U' ? hex(s, i + 1, 8, end) : -1;
+        int length = 8;
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+          codePoint = hex(s, i + 1, 4, end);
+          length = 4;
+        }
+        if (codePoint < 0) {
+          return null;
+        }
+        sb.appendCodePoint(codePoint);
+        i += length;
+      } else if (multiline && isWhitespace(next)) {
+        while (i + 1 < end && isWhitespace(s.charAt(i + 1))) {
+          i++;
+        }
+      } else {
+        return null;
+      }
+      
+      copied = i + 1;
     }
-
-    return s.replace("\\n", "\n")
-      .replace("\\\"", "\"")
-      .replace("\\t", "\t")
-      .replace("\\r", "\r")
-      .replace("\\\\", "\\")
-      .replace("\\/", "/")
-      .replace("\\b", "\b")
-      .replace("\\f", "\f");
+    
+    if (sb == null) {
+      return s.substring(start, end);
+    }
+    
+    s.appendTo(sb, copied, end);
+    
+    return sb.toString();
+  }
+  
+  /**
+   * Replaces \\uXXXX and \\UXXXX, leaving other escape sequences as they are. Used for quoted keys.
+   */
+  String replaceUnicodeCharacters(String value) {
+    int i = value.indexOf('\\');
+    if (i < 0) {
+      return value;
+    }
+    
+    StringSource s = new StringSource(value);
+    StringBuilder sb = new StringBuilder(value.length());
+    int copied = 0;
+    
+    for (; i < value.length() - 5; i++) {
+      char next = value.charAt(i + 1);
+      int codePoint = value.charAt(i) == '\\' && (next == 'u' || next == 'U') ? hex(s, i + 2, 4, value.length()) : -1;
+      
+      if (codePoint >= 0) {
+        sb.append(value, copied, i).appendCodePoint(codePoint);
+        i += 5;
+        copied = i + 1;
+      }
+    }
+    
+    return sb.append(value, copied, value.length()).toString();
+  }
+  
+  /**
+   * @return the value of count hex digits, or -1 if there are fewer
+   */
+  private static int hex(Source s, int index, int count, int end) {
+    if (index + count > end) {
+      return -1;
+    }
+    
+    int value = 0;
+    for (int i = index; i < index + count; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        value = value << 4 | c - '0';
+      } else if (c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F') {
+        value = value << 4 | (c | 0x20) - 'a' + 10;
+      } else {
+        return -1;
+      }
+    }
+    
+    return value;
+  }
+  
+  /**
+   * The characters matched by \\s in a regular expression
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
   }
 
   @Override
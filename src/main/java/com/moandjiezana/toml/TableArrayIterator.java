@@ -0,0 +1,150 @@
+package com.moandjiezana.toml;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.moandjiezana.toml.TomlEventReader.Event;
+
+/**
+ * Reads the elements of a table array one at a time. An element ends at the next table header that is not inside it.
+ * Each element is parsed into its own {@link Results}, so only one element is in memory at a time.
+ */
+class TableArrayIterator implements Iterator<Toml> {
+  
+  private final TomlEventReader reader;
+  private final String[] path;
+  private Keys.Key[] keys;
+  private Results element;
+  private Toml next;
+  private boolean closed = false;
+
+  TableArrayIterator(TomlEventReader reader, String tableArrayName) {
+    this.reader = reader.project(new Projection(new String[] { tableArrayName }));
+    this.path = Projection.split(tableArrayName);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = readNext();
+    }
+    
+    return next != null;
+  }
+
+  @Override
+  public Toml next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    
+    Toml current = next;
+    next = null;
+    
+    return current;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+  
+  /**
+   * Closes the reader at the end of the source, or as soon as an error is found.
+   */
+  private Toml readNext() {
+    if (closed) {
+      return null;
+    }
+    
+    try {
+      return readElement();
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+  
+  private Toml readElement() {
+    while (reader.hasNext()) {
+      Event event = reader.next();
+      
+      if (event == Event.TABLE_START || event == Event.TABLE_ARRAY_ELEMENT) {
+        String[] tablePath = Projection.split(reader.getTableName());
+        Toml finished = null;
+        
+        if (event == Event.TABLE_ARRAY_ELEMENT && Arrays.equals(tablePath, path)) {
+          finished = finish();
+          keys = Keys.split(reader.getTableName());
+          element = new Results();
+          element.onTableArray(reader.getTableName(), reader.getLine());
+        } else if (element != null && isInside(tablePath)) {
+          if (event == Event.TABLE_START) {
+            element.onTable(reader.getTableName(), reader.getLine());
+          } else {
+            element.onTableArray(reader.getTableName(), reader.getLine());
+          }
+        } else {
+          finished = finish();
+        }
+        
+        if (finished != null) {
+          return finished;
+        }
+      } else if (event == Event.VALUE && element != null) {
+        element.onKeyValue(reader.getKey(), reader.getValue(), reader.getLine());
+      }
+      
+      if (element != null && element.errors.hasErrors()) {
+        throw element.errors.toException();
+      }
+    }
+    
+    Toml last = finish();
+    close();
+    
+    return last;
+  }
+  
+  private void close() {
+    closed = true;
+    
+    try {
+      reader.close();
+    } catch (IOException e) {}
+  }
+  
+  private boolean isInside(String[] tablePath) {
+    if (tablePath.length <= path.length) {
+      return false;
+    }
+    
+    for (int i = 0; i < path.length; i++) {
+      if (!path[i].equals(tablePath[i])) {
+        return false;
+      }
+    }
+    
+    return true;
+  }
+  
+  @SuppressWarnings("unchecked")
+  private Toml finish() {
+    if (element == null) {
+      return null;
+    }
+    
+    Object current = element.consume();
+    element = null;
+    
+    for (Keys.Key key : keys) {
+      current = ((Map<String, Object>) current).get(key.name);
+    }
+    
+    return new Toml(null, (Map<String, Object>) ((List<?>) current).get(0));
+  }
+}
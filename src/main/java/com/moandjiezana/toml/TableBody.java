@@ -0,0 +1,43 @@
+package com.moandjiezana.toml;
+
+/**
+ * The key/value pairs of a table, which are only parsed when the table is first accessed.
+ */
+class TableBody {
+  
+  private final Source source;
+  private final int startIndex;
+  private final int startLine;
+  private final boolean lazyValues;
+
+  /**
+   * @param endIndex the position of the next table header, or -1 if the body ends with the source
+   */
+  TableBody(Source source, int startIndex, int endIndex, int startLine, boolean lazyValues) {
+    this.source = new BoundedSource(source, endIndex > -1 ? endIndex : Integer.MAX_VALUE);
+    this.startIndex = startIndex;
+    this.startLine = startLine;
+    this.lazyValues = lazyValues;
+  }
+  
+  /**
+   * @throws IllegalStateException if the body contains invalid TOML, or keys that are already defined in table
+   */
+  void parseInto(Container.Table table) {
+    Results.Errors errors = parse(table);
+    
+    if (errors != null) {
+      throw errors.toException();
+    }
+  }
+  
+  /**
+   * @return null, or the errors found in the body
+   */
+  Results.Errors parse(Container.Table table) {
+    Results results = new Results(table);
+    new TomlParser(source, new Results.Errors(), lazyValues, false, startIndex, startLine).push(results);
+    
+    return results.errors.hasErrors() ? results.errors : null;
+  }
+}
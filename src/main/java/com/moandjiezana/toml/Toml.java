@@ -1,21 +1,23 @@
 package com.moandjiezana.toml;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
@@ -27,7 +29,7 @@ import com.google.gson.JsonElement;
  * Getters for simple values (String, Date, etc.) will return null if no matching key exists.
  * {@link #getList(String)}, {@link #getTable(String)} and {@link #getTables(String)} return empty values if there is no matching key.</p>
  * 
- * <p>All read methods throw an {@link IllegalStateException} if the TOML is incorrect.</p>
+ * <p>All read methods throw a {@link TomlParseException}, which is an {@link IllegalStateException}, if the TOML is incorrect.</p>
  *
  * <p>Example usage:</p>
  * <pre><code>
@@ -42,9 +44,15 @@ import com.google.gson.JsonElement;
 public class Toml {
   
   private static final Gson DEFAULT_GSON = new Gson();
+  private static final String[] NO_KEY_PATHS = new String[0];
 
   private Map<String, Object> values = new HashMap<String, Object>();
   private final Toml defaults;
+  private boolean lazyValues = false;
+  private boolean lazyTables = false;
+  private boolean failFast = false;
+  private ExecutorService executor;
+  private Sections sections;
 
   /**
    * Creates Toml instance with no defaults.
@@ -60,30 +68,188 @@ public class Toml {
     this(defaults, new HashMap<String, Object>());
   }
 
+  /**
+   * Reads the elements of a table array one at a time, without keeping the rest of the document in memory.
+   * An element includes the tables and table arrays nested in it. Keys outside the table array are skipped without being converted, so their values are only checked for termination.
+   * 
+   * Duplicate keys and tables are only detected within an element.
+   * 
+   * @param reader Closed once the last element has been read, or when an error is found.
+   * @param tableArrayName the name of the table array, for example "products" or "store.products"
+   * @return an {@link Iterator} whose {@link Iterator#hasNext()} and {@link Iterator#next()} throw an IllegalStateException if the TOML is invalid
+   */
+  public static Iterator<Toml> streamTables(Reader reader, String tableArrayName) {
+    return new TableArrayIterator(new TomlEventReader(reader), tableArrayName);
+  }
+  
+  /**
+   * Like {@link #streamTables(Reader, String)}.
+   * 
+   * @param inputStream Expected to be encoded as UTF-8. Closed once the last element has been read, or when an error is found.
+   */
+  public static Iterator<Toml> streamTables(InputStream inputStream, String tableArrayName) {
+    return new TableArrayIterator(new TomlEventReader(inputStream), tableArrayName);
+  }
+
+  /**
+   * Checks that tomlString is valid TOML, including duplicate keys and tables, without building a Toml instance.
+   * Each value is discarded once it has been read and no tables are created.
+   * 
+   * @param tomlString String to be checked.
+   * @return the errors that {@link #read(String)} would throw in a {@link TomlParseException}, or an empty list if tomlString is valid
+   */
+  public static List<TomlError> validate(String tomlString) {
+    return validate(new StringSource(tomlString));
+  }
+  
+  /**
+   * Like {@link #validate(String)}.
+   * 
+   * @param reader Closed after it has been read.
+   */
+  public static List<TomlError> validate(Reader reader) {
+    try {
+      return validate(new ReaderSource(reader));
+    } finally {
+      try {
+        reader.close();
+      } catch (IOException e) {}
+    }
+  }
+  
+  /**
+   * Like {@link #validate(String)}.
+   * 
+   * @param inputStream Expected to be encoded as UTF-8. Closed after it has been read.
+   */
+  public static List<TomlError> validate(InputStream inputStream) {
+    try {
+      return validate(new Utf8StreamSource(inputStream));
+    } finally {
+      try {
+        inputStream.close();
+      } catch (IOException e) {}
+    }
+  }
+  
+  /**
+   * Like {@link #validate(String)}. The file is memory-mapped, as in {@link #read(File)}.
+   * 
+   * @param file Expected to be encoded as UTF-8.
+   */
+  public static List<TomlError> validate(File file) {
+    try {
+      FileInputStream inputStream = new FileInputStream(file);
+      try {
+        FileChannel channel = inputStream.getChannel();
+        long size = channel.size();
+        
+        if (size > Integer.MAX_VALUE) {
+          return validate(new Utf8StreamSource(inputStream));
+        }
+        
+        return validate(new Utf8Source(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)));
+      } finally {
+        inputStream.close();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+  
+  private static List<TomlError> validate(Source source) {
+    return TomlParser.validate(source).list();
+  }
+
   /**
    * Populates the current Toml instance with values from file.
+   * 
+   * The file is memory-mapped and parsed in place, rather than being copied into a String first.
    *
    * @param file The File to be read. Expected to be encoded as UTF-8.
    * @return this instance
    * @throws IllegalStateException If file contains invalid TOML
    */
   public Toml read(File file) {
+    return read(file, NO_KEY_PATHS);
+  }
+
+  /**
+   * Like {@link #read(File)}, but only the values at keyPaths are converted and stored. Everything else is skipped.
+   * 
+   * @param keyPaths see {@link #read(String, String...)}
+   * @return this instance
+   */
+  public Toml read(File file, String... keyPaths) {
     try {
-      return read(new InputStreamReader(new FileInputStream(file), "UTF8"));
-    } catch (Exception e) {
+      FileInputStream inputStream = new FileInputStream(file);
+      try {
+        FileChannel channel = inputStream.getChannel();
+        long size = channel.size();
+        
+        if (size > Integer.MAX_VALUE) {
+          return read(new Utf8StreamSource(inputStream), keyPaths);
+        }
+        
+        return read(new Utf8Source(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)), keyPaths);
+      } finally {
+        inputStream.close();
+      }
+    } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
   /**
    * Populates the current Toml instance with values from inputStream.
+   * 
+   * The bytes are scanned as they are read and only keys and strings are decoded.
    *
-   * @param inputStream Closed after it has been read.
+   * @param inputStream Expected to be encoded as UTF-8. Closed after it has been read.
    * @return this instance
    * @throws IllegalStateException If file contains invalid TOML
    */
   public Toml read(InputStream inputStream) {
-    return read(new InputStreamReader(inputStream));
+    return read(inputStream, NO_KEY_PATHS);
+  }
+
+  /**
+   * Like {@link #read(InputStream)}, but only the values at keyPaths are converted and stored. Everything else is skipped.
+   * 
+   * @param keyPaths see {@link #read(String, String...)}
+   * @return this instance
+   */
+  public Toml read(InputStream inputStream, String... keyPaths) {
+    try {
+      return read(new Utf8StreamSource(inputStream), keyPaths);
+    } finally {
+      try {
+        inputStream.close();
+      } catch (IOException e) {}
+    }
+  }
+
+  /**
+   * Populates the current Toml instance with values from byteBuffer, which is parsed in place.
+   * 
+   * Use {@link ByteBuffer#wrap(byte[])} to read a byte array.
+   *
+   * @param byteBuffer Expected to be encoded as UTF-8. Read from its position to its limit, neither of which is modified.
+   * @return this instance
+   * @throws IllegalStateException If byteBuffer contains invalid TOML
+   */
+  public Toml read(ByteBuffer byteBuffer) {
+    return read(byteBuffer, NO_KEY_PATHS);
+  }
+
+  /**
+   * Like {@link #read(ByteBuffer)}, but only the values at keyPaths are converted and stored. Everything else is skipped.
+   * 
+   * @param keyPaths see {@link #read(String, String...)}
+   * @return this instance
+   */
+  public Toml read(ByteBuffer byteBuffer, String... keyPaths) {
+    return read(new Utf8Source(byteBuffer), keyPaths);
   }
 
   /**
@@ -94,25 +260,23 @@ public class Toml {
    * @throws IllegalStateException If file contains invalid TOML
    */
   public Toml read(Reader reader) {
-    BufferedReader bufferedReader = null;
-    try {
-      bufferedReader = new BufferedReader(reader);
+    return read(reader, NO_KEY_PATHS);
+  }
 
-      StringBuilder w = new StringBuilder();
-      String line = bufferedReader.readLine();
-      while (line != null) {
-        w.append(line).append('\n');
-        line = bufferedReader.readLine();
-      }
-      read(w.toString());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+  /**
+   * Like {@link #read(Reader)}, but only the values at keyPaths are converted and stored. Everything else is skipped.
+   * 
+   * @param keyPaths see {@link #read(String, String...)}
+   * @return this instance
+   */
+  public Toml read(Reader reader, String... keyPaths) {
+    try {
+      return read(new ReaderSource(reader), keyPaths);
     } finally {
       try {
-        bufferedReader.close();
+        reader.close();
       } catch (IOException e) {}
     }
-    return this;
   }
 
   /**
@@ -135,9 +299,117 @@ public class Toml {
    * @throws IllegalStateException If tomlString is not valid TOML
    */
   public Toml read(String tomlString) throws IllegalStateException {
-    Results results = TomlParser.run(tomlString);
+    return read(tomlString, NO_KEY_PATHS);
+  }
+
+  /**
+   * Like {@link #read(String)}, but only the values at keyPaths are converted and stored. Everything else is only checked for termination.
+   * 
+   * A key path selects a key, or a table and everything in it, for example "server.port" or "database". "database.*" is the same as "database".
+   * Table array indexes are ignored, so "servers.port" selects port in every element of servers. Inline tables are selected in full.
+   * {@link #lazyTables()} has no effect when key paths are given.
+   * 
+   * @param tomlString String to be read.
+   * @param keyPaths If empty, the whole document is read.
+   * @return this instance
+   * @throws IllegalStateException If tomlString is not valid TOML
+   */
+  public Toml read(String tomlString, String... keyPaths) throws IllegalStateException {
+    return read(new StringSource(tomlString), keyPaths);
+  }
+
+  /**
+   * Populates the current Toml instance with values from tomlString, a new version of the document passed to the previous call to this method.
+   * 
+   * The document is divided into sections that start at table headers. Only the sections that overlap the text that differs from the previous version
+   * are parsed again, the values of the others are re-used, so an update takes time proportional to the size of the change and the number of sections.
+   * The first call parses the whole document. Lazy values, lazy tables and parallel parsing do not apply.
+   * 
+   * The text of the last version and the values of each section are kept until the next call. Lists are copied for each version, so that they can be
+   * modified without affecting other versions.
+   *
+   * @param tomlString String to be read.
+   * @return this instance
+   * @throws IllegalStateException If tomlString is not valid TOML
+   */
+  public Toml update(String tomlString) throws IllegalStateException {
+    if (sections == null) {
+      sections = new Sections();
+    }
+    
+    return read(sections.read(tomlString));
+  }
+
+  /**
+   * Values read after this method has been called are only converted the first time they are requested, rather than when the TOML is read.
+   * Invalid values are therefore only reported when they are requested, by throwing an IllegalStateException.
+   * 
+   * The source is kept in memory until this instance is garbage-collected.
+   * 
+   * @return this instance
+   */
+  public Toml lazyValues() {
+    this.lazyValues = true;
+    
+    return this;
+  }
+
+  /**
+   * Tables read after this method has been called are only parsed the first time one of their values is requested, for example through {@link #getTable(String)}.
+   * Table headers are still checked when the TOML is read, but invalid or duplicate keys are only reported when their table is accessed, by throwing an IllegalStateException.
+   * A table is parsed as soon as a table is defined inside it, so that a header that conflicts with one of its keys fails the read, as it would without this method.
+   * 
+   * The source is kept in memory until this instance is garbage-collected.
+   * 
+   * @return this instance
+   */
+  public Toml lazyTables() {
+    this.lazyTables = true;
+    
+    return this;
+  }
+
+  /**
+   * Reading stops at the first error found after this method has been called, and only that error is reported.
+   * Otherwise, reading stops at the end of the line on which the first error is found, and all the errors on that line are reported.
+   * 
+   * @return this instance
+   */
+  public Toml failFast() {
+    this.failFast = true;
+    
+    return this;
+  }
+
+  /**
+   * Large documents read after this method has been called are split at table headers and the parts are parsed by executor.
+   * The results, including any error, are the same as when the parts are parsed one after the other.
+   * Has no effect if {@link #lazyTables()} has been called.
+   * 
+   * @param executor runs the parsing tasks. Is not shut down.
+   * @return this instance
+   */
+  public Toml parallel(ExecutorService executor) {
+    this.executor = executor;
+    
+    return this;
+  }
+
+  private Toml read(Source source, String[] keyPaths) {
+    Projection projection = keyPaths.length > 0 ? new Projection(keyPaths) : null;
+    Results results;
+    if (executor != null && !lazyTables) {
+      results = TomlParser.run(source, executor, lazyValues, projection, failFast);
+    } else {
+      results = TomlParser.run(source, lazyValues, lazyTables && projection == null, projection, failFast);
+    }
+
+    return read(results);
+  }
+  
+  private Toml read(Results results) {
     if (results.errors.hasErrors()) {
-      throw new IllegalStateException(results.errors.toString());
+      throw results.errors.toException();
     }
 
     this.values = results.consume();
@@ -186,6 +458,70 @@ public class Toml {
     
     return list != null ? list : defaultValue;
   }
+  
+  /**
+   * Integer arrays are stored unboxed, so this avoids creating a {@link Long} per element.
+   * 
+   * @param key a TOML key
+   * @return a copy of the array, or <code>null</code> if the key is not found
+   */
+  public long[] getLongArray(String key) {
+    Object value = get(key);
+    
+    if (value instanceof LongList) {
+      return ((LongList) value).toLongArray();
+    }
+    
+    if (value == null) {
+      return null;
+    }
+    
+    List<?> list = (List<?>) value;
+    long[] array = new long[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (Long) list.get(i);
+    }
+    
+    return array;
+  }
+  
+  public long[] getLongArray(String key, long[] defaultValue) {
+    long[] array = getLongArray(key);
+    
+    return array != null ? array : defaultValue;
+  }
+  
+  /**
+   * Float arrays are stored unboxed, so this avoids creating a {@link Double} per element.
+   * 
+   * @param key a TOML key
+   * @return a copy of the array, or <code>null</code> if the key is not found
+   */
+  public double[] getDoubleArray(String key) {
+    Object value = get(key);
+    
+    if (value instanceof DoubleList) {
+      return ((DoubleList) value).toDoubleArray();
+    }
+    
+    if (value == null) {
+      return null;
+    }
+    
+    List<?> list = (List<?>) value;
+    double[] array = new double[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (Double) list.get(i);
+    }
+    
+    return array;
+  }
+  
+  public double[] getDoubleArray(String key, double[] defaultValue) {
+    double[] array = getDoubleArray(key);
+    
+    return array != null ? array : defaultValue;
+  }
 
   public Boolean getBoolean(String key) {
     return (Boolean) get(key);
@@ -395,7 +731,7 @@ public class Toml {
       return values.get(key);
     }
 
-    Object current = new HashMap<String, Object>(values);
+    Object current = values;
     
     Keys.Key[] keys = Keys.split(key);
     
@@ -422,7 +758,7 @@ public class Toml {
     return current;
   }
   
-  private Toml(Toml defaults, Map<String, Object> values) {
+  Toml(Toml defaults, Map<String, Object> values) {
     this.values = values;
     this.defaults = defaults;
   }
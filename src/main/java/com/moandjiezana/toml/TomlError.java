@@ -0,0 +1,152 @@
+package com.moandjiezana.toml;
+
+import java.io.Serializable;
+
+/**
+ * <p>An error found while reading a TOML source.</p>
+ * 
+ * <p>Its message is only formatted when {@link #getMessage()} is called.</p>
+ */
+public class TomlError implements Serializable {
+  
+  private static final long serialVersionUID = 1L;
+  
+  public static enum Kind {
+    DUPLICATE_TABLE,
+    /**
+     * A table has the same name as an existing key
+     */
+    TABLE_DUPLICATES_KEY,
+    /**
+     * A key has the same name as an existing table
+     */
+    KEY_DUPLICATES_TABLE,
+    EMPTY_IMPLICIT_TABLE,
+    INVALID_TABLE,
+    INVALID_TABLE_ARRAY,
+    DUPLICATE_KEY,
+    INVALID_KEY,
+    /**
+     * A key is not followed by an equals sign
+     */
+    UNTERMINATED_KEY,
+    /**
+     * Something other than a comment follows a value on the same line
+     */
+    INVALID_TEXT_AFTER_KEY,
+    INVALID_VALUE,
+    UNTERMINATED_VALUE,
+    HETEROGENEOUS_ARRAY,
+    /**
+     * Passed to {@link TomlHandler#onError(String)} as a message, so only the message is known
+     */
+    OTHER;
+  }
+  
+  private final Kind kind;
+  private final String key;
+  private final String text;
+  private final int line;
+  private final int column;
+  
+  TomlError(Kind kind, String key, String text, int line) {
+    this(kind, key, text, line, -1);
+  }
+  
+  TomlError(Kind kind, String key, String text, int line, int column) {
+    this.kind = kind;
+    this.key = key;
+    this.text = text;
+    this.line = line;
+    this.column = column;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the key or table in which the error was found, as written in the source. null if the error is of kind {@link Kind#OTHER}.
+   */
+  public String getKey() {
+    return key;
+  }
+  
+  /**
+   * @return the line on which the error was found, or -1 if it is not known
+   */
+  public int getLine() {
+    return line;
+  }
+  
+  /**
+   * Columns start at 1. When reading UTF-8 from an {@link java.io.InputStream} or a {@link java.nio.ByteBuffer}, they count bytes rather than characters.
+   * 
+   * @return the column at which the invalid key, table or value starts, or -1 if it is not known. Duplicate keys and tables have no column.
+   */
+  public int getColumn() {
+    return column;
+  }
+  
+  public String getMessage() {
+    StringBuilder sb = new StringBuilder();
+    appendTo(sb);
+    
+    return sb.toString();
+  }
+  
+  @Override
+  public String toString() {
+    return getMessage();
+  }
+  
+  void appendTo(StringBuilder sb) {
+    switch (kind) {
+    case DUPLICATE_TABLE:
+      sb.append("Duplicate table definition on line ").append(line).append(": [").append(key).append("]");
+      break;
+    case TABLE_DUPLICATES_KEY:
+      sb.append("Key already exists for table defined on line ").append(line).append(": [").append(key).append("]");
+      break;
+    case KEY_DUPLICATES_TABLE:
+      sb.append("Table already exists for key defined on line ").append(line).append(": ").append(key);
+      break;
+    case EMPTY_IMPLICIT_TABLE:
+      sb.append("Invalid table definition due to empty implicit table name: ").append(key);
+      break;
+    case INVALID_TABLE:
+      sb.append("Invalid table definition on line ").append(line).append(": ").append(key).append("]");
+      break;
+    case INVALID_TABLE_ARRAY:
+      sb.append("Invalid table array definition on line ").append(line).append(": ").append(key);
+      break;
+    case DUPLICATE_KEY:
+      sb.append("Duplicate key");
+      if (line > -1) {
+        sb.append(" on line ").append(line);
+      }
+      sb.append(": ").append(key);
+      break;
+    case INVALID_KEY:
+      sb.append("Invalid key on line ").append(line).append(": ").append(key);
+      break;
+    case UNTERMINATED_KEY:
+      sb.append("Key is not followed by an equals sign on line ").append(line).append(": ").append(key);
+      break;
+    case INVALID_TEXT_AFTER_KEY:
+      sb.append("Invalid text after key ").append(key).append(" on line ").append(line).append(". Make sure to terminate the value or add a comment (#).");
+      break;
+    case INVALID_VALUE:
+      sb.append("Invalid value on line ").append(line).append(": ").append(key).append(" = ").append(text);
+      break;
+    case UNTERMINATED_VALUE:
+      sb.append("Unterminated value on line ").append(line).append(": ").append(key).append(" = ").append(text.trim());
+      break;
+    case HETEROGENEOUS_ARRAY:
+      sb.append(key).append(" becomes a heterogeneous array on line ").append(line);
+      break;
+    default:
+      sb.append(text);
+    }
+  }
+}
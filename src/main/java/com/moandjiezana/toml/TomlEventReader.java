@@ -0,0 +1,228 @@
+package com.moandjiezana.toml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Reads a TOML source one event at a time, without building the whole document in memory.</p>
+ * 
+ * <p>Only the current line or multiline value is held in memory, so arbitrarily large sources can be processed.
+ * As a consequence, duplicate keys and tables are not detected. All other errors cause an {@link IllegalStateException}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre><code>
+ * TomlEventReader reader = new TomlEventReader(new FileInputStream(file));
+ * try {
+ *   while (reader.hasNext()) {
+ *     if (reader.next() == TomlEventReader.Event.VALUE) {
+ *       System.out.println(reader.getKey() + " = " + reader.getValue());
+ *     }
+ *   }
+ * } finally {
+ *   reader.close();
+ * }
+ * </code></pre>
+ */
+public class TomlEventReader implements Closeable {
+  
+  public static enum Event {
+    /**
+     * A [table] header. Its name is available from {@link TomlEventReader#getTableName()}.
+     */
+    TABLE_START,
+    /**
+     * A [[table array]] header, starting a new element of the array. Its name is available from {@link TomlEventReader#getTableName()}.
+     */
+    TABLE_ARRAY_ELEMENT,
+    /**
+     * A key, which will be followed by its {@link #VALUE}. Its name is available from {@link TomlEventReader#getKey()}.
+     */
+    KEY,
+    /**
+     * The value of the preceding {@link #KEY}, available from {@link TomlEventReader#getValue()}.
+     */
+    VALUE;
+  }
+  
+  private final Closeable input;
+  private final TomlParser parser;
+  private Event peeked;
+  private Event event;
+  private String tableName;
+  private String key;
+  private Object value;
+  private int line;
+  
+  /**
+   * @param reader closed by {@link #close()}
+   */
+  public TomlEventReader(Reader reader) {
+    this(new ReaderSource(reader), reader);
+  }
+  
+  /**
+   * @param inputStream Expected to be encoded as UTF-8. Closed by {@link #close()}
+   */
+  public TomlEventReader(InputStream inputStream) {
+    this(new Utf8StreamSource(inputStream), inputStream);
+  }
+  
+  /**
+   * @return true if there is at least one more event
+   * @throws IllegalStateException if the source contains invalid TOML
+   */
+  public boolean hasNext() {
+    if (peeked == null) {
+      peeked = parser.next();
+      
+      if (parser.errors.hasErrors()) {
+        throw parser.errors.toException();
+      }
+    }
+    
+    return peeked != null;
+  }
+  
+  /**
+   * @return the next event
+   * @throws NoSuchElementException if there are no more events
+   * @throws IllegalStateException if the source contains invalid TOML
+   */
+  public Event next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    
+    event = peeked;
+    peeked = null;
+    line = parser.eventLine;
+    
+    if (event == Event.TABLE_START || event == Event.TABLE_ARRAY_ELEMENT) {
+      tableName = parser.identifier.getBareName();
+      key = null;
+      value = null;
+    } else if (event == Event.KEY) {
+      key = parser.identifier.getName();
+      value = null;
+    } else {
+      value = parser.value;
+    }
+    
+    return event;
+  }
+  
+  /**
+   * @return the current event or null if {@link #next()} has not been called yet
+   */
+  public Event getEvent() {
+    return event;
+  }
+  
+  /**
+   * @return the line on which the current event starts
+   */
+  public int getLine() {
+    return line;
+  }
+  
+  /**
+   * @return the name of the most recent table or table array, not including square brackets. null if the current event is before any table.
+   */
+  public String getTableName() {
+    return tableName;
+  }
+  
+  /**
+   * @return the key of the current {@link Event#KEY} or {@link Event#VALUE}, otherwise null
+   */
+  public String getKey() {
+    return key;
+  }
+  
+  /**
+   * Arrays are returned as a {@link List} and inline tables as a {@link Map Map&lt;String, Object&gt;}.
+   * 
+   * @return the value of the current {@link Event#VALUE}, otherwise null
+   */
+  public Object getValue() {
+    return value;
+  }
+  
+  public String getString() {
+    return (String) value;
+  }
+  
+  public Long getLong() {
+    return (Long) value;
+  }
+  
+  public Double getDouble() {
+    return (Double) value;
+  }
+  
+  public Boolean getBoolean() {
+    return (Boolean) value;
+  }
+  
+  public Date getDate() {
+    return (Date) value;
+  }
+  
+  /**
+   * @param <T> type of list items
+   * @return the array value of the current {@link Event#VALUE}
+   */
+  public <T> List<T> getList() {
+    @SuppressWarnings("unchecked")
+    List<T> list = (List<T>) value;
+    
+    return list;
+  }
+
+  /**
+   * Passes all remaining events to handler, stopping early if handler returns false.
+   * Errors are passed to {@link TomlHandler#onError(String)} rather than thrown.
+   * 
+   * @param handler receives the tables, table array elements and key/value pairs
+   */
+  public void accept(TomlHandler handler) {
+    if (peeked != null) {
+      Event event = peeked;
+      peeked = null;
+      
+      if (!parser.push(event, handler)) {
+        return;
+      }
+    }
+    
+    parser.push(handler);
+  }
+  
+  /**
+   * Closes the underlying Reader or InputStream.
+   */
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+  
+  /**
+   * Skips the tables and keys that projection does not select, without emitting their events or converting their values.
+   */
+  TomlEventReader project(Projection projection) {
+    parser.projection = projection;
+    
+    return this;
+  }
+  
+  private TomlEventReader(Source source, Closeable input) {
+    this.parser = new TomlParser(source, new Results.Errors());
+    this.input = input;
+  }
+}
@@ -0,0 +1,42 @@
+package com.moandjiezana.toml;
+
+/**
+ * <p>Receives the contents of a TOML source as it is being read, without a {@link Toml} instance being built.</p>
+ * 
+ * <p>Duplicate keys and tables are not detected, as this would require keeping track of the whole document.</p>
+ * 
+ * @see TomlEventReader#accept(TomlHandler)
+ */
+public interface TomlHandler {
+
+  /**
+   * @param name the table's name, not including square brackets
+   * @param line the line on which the table is defined
+   * @return true to keep reading, false to stop
+   */
+  boolean onTable(String name, int line);
+
+  /**
+   * Called for each element of a table array.
+   * 
+   * @param name the table array's name, not including square brackets
+   * @param line the line on which the element is defined
+   * @return true to keep reading, false to stop
+   */
+  boolean onTableArray(String name, int line);
+
+  /**
+   * @param key the key, relative to the most recent table or table array
+   * @param value arrays are a {@link java.util.List} and inline tables a {@link java.util.Map Map&lt;String, Object&gt;}
+   * @param line the line on which the key is defined
+   * @return true to keep reading, false to stop
+   */
+  boolean onKeyValue(String key, Object value, int line);
+
+  /**
+   * Called at most once, after which reading stops.
+   * 
+   * @param message describes the error and the line on which it occurred
+   */
+  void onError(String message);
+}
@@ -0,0 +1,71 @@
+package com.moandjiezana.toml;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * <p>Gets dates from a {@link Toml} as java.time values. Requires Java 8 or later.</p>
+ * 
+ * <p>Kept apart from {@link Toml}, which must still load on Java 6 and 7.</p>
+ * 
+ * <p>Dates are stored as {@link Date}s, so the offset written in the TOML is not kept once it has been parsed. {@link #getUtcDateTime(Toml, String)} and {@link #getUtcDate(Toml, String)} convert them to UTC.</p>
+ */
+public final class TomlJavaTime {
+  
+  private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+  public static Instant getInstant(Toml toml, String key) {
+    Date date = toml.getDate(key);
+    return date == null ? null : Instant.ofEpochMilli(date.getTime());
+  }
+
+  public static Instant getInstant(Toml toml, String key, Instant defaultValue) {
+    Instant val = getInstant(toml, key);
+    return val == null ? defaultValue : val;
+  }
+
+  /**
+   * @return the date-time converted to UTC, whatever its offset in the TOML
+   */
+  public static OffsetDateTime getUtcDateTime(Toml toml, String key) {
+    Instant instant = getInstant(toml, key);
+    return instant == null ? null : OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+  }
+
+  /**
+   * @see #getUtcDateTime(Toml, String)
+   */
+  public static OffsetDateTime getUtcDateTime(Toml toml, String key, OffsetDateTime defaultValue) {
+    OffsetDateTime val = getUtcDateTime(toml, key);
+    return val == null ? defaultValue : val;
+  }
+
+  /**
+   * @return the date of the date-time once it has been converted to UTC
+   * @see #getUtcDateTime(Toml, String)
+   */
+  public static LocalDate getUtcDate(Toml toml, String key) {
+    Date date = toml.getDate(key);
+    if (date == null) {
+      return null;
+    }
+    
+    long time = date.getTime();
+    long days = time / MILLIS_PER_DAY;
+    
+    return LocalDate.ofEpochDay(time % MILLIS_PER_DAY < 0 ? days - 1 : days);
+  }
+
+  /**
+   * @see #getUtcDate(Toml, String)
+   */
+  public static LocalDate getUtcDate(Toml toml, String key, LocalDate defaultValue) {
+    LocalDate val = getUtcDate(toml, key);
+    return val == null ? defaultValue : val;
+  }
+  
+  private TomlJavaTime() {}
+}
@@ -0,0 +1,38 @@
+package com.moandjiezana.toml;
+
+import java.util.List;
+
+/**
+ * Thrown when a TOML source is invalid. The message combines those of {@link #getErrors()} and is only formatted when it is requested.
+ */
+public class TomlParseException extends IllegalStateException {
+  
+  private static final long serialVersionUID = 1L;
+  
+  private final List<TomlError> errors;
+  private transient String message;
+  
+  TomlParseException(List<TomlError> errors) {
+    this.errors = errors;
+  }
+  
+  /**
+   * @return at least one error, in the order in which they were found
+   */
+  public List<TomlError> getErrors() {
+    return errors;
+  }
+  
+  @Override
+  public String getMessage() {
+    if (message == null) {
+      StringBuilder sb = new StringBuilder();
+      for (TomlError error : errors) {
+        error.appendTo(sb);
+      }
+      message = sb.toString();
+    }
+    
+    return message;
+  }
+}
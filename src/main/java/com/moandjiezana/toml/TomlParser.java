@@ -1,65 +1,325 @@
 package com.moandjiezana.toml;
 
 import static com.moandjiezana.toml.IdentifierConverter.IDENTIFIER_CONVERTER;
+import static com.moandjiezana.toml.ValueReaders.VALUE_READERS;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.moandjiezana.toml.TomlEventReader.Event;
 
 class TomlParser {
+  
+  private static final Object SKIPPED = new Object();
+  static final int SEGMENT_LENGTH = 64 * 1024;
+  /**
+   * The largest buffer kept by {@link #reset(Source)}
+   */
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
 
-  static Results run(String tomlString) {
-    final Results results = new Results();
+  static Results run(Source tomlString) {
+    return run(tomlString, false, false, null, false);
+  }
+  
+  /**
+   * @param lazyValues if true, values are wrapped in a {@link LazyValue} and tomlString must remain readable after parsing
+   * @param lazyTables if true, the bodies of tables are only checked for unterminated values and tomlString must remain readable after parsing.
+   *   Each table's keys are parsed when the table is first accessed. Cannot be combined with a projection.
+   * @param projection if not null, tables and keys that it does not select are skipped
+   * @param failFast if true, reading stops at the first error, which is the only one reported
+   */
+  static Results run(Source tomlString, boolean lazyValues, boolean lazyTables, Projection projection, boolean failFast) {
+    final Results results = new Results(failFast);
+    TomlParser parser = new TomlParser(tomlString, new Results.Errors(failFast), lazyValues, lazyTables, 0, 1);
+    parser.projection = projection;
     
-    if (tomlString.isEmpty()) {
+    if (!lazyTables) {
+      parser.push(results);
+      
       return results;
     }
     
-    AtomicInteger index = new AtomicInteger();
-    boolean inComment = false;
-    AtomicInteger line = new AtomicInteger(1);
-    Identifier identifier = null;
-    Object value = null;
+    Container.Table table = null;
+    int bodyStartIndex = -1;
+    int bodyStartLine = -1;
     
-    for (int i = index.get(); i < tomlString.length(); i = index.incrementAndGet()) {
-      char c = tomlString.charAt(i);
-      
-      if (results.errors.hasErrors()) {
+    for (Event event = parser.next(); event != null; event = parser.next()) {
+      if (event == Event.TABLE_START || event == Event.TABLE_ARRAY_ELEMENT) {
+        if (table != null) {
+          table.defer(new TableBody(tomlString, bodyStartIndex, parser.eventIndex, bodyStartLine, lazyValues));
+        }
+        
+        table = parser.push(event, results) ? results.currentTable() : null;
+        bodyStartIndex = parser.state.index + 1;
+        bodyStartLine = parser.eventLine;
+      } else if (!parser.push(event, results)) {
         break;
       }
+    }
+    
+    if (table != null) {
+      table.defer(new TableBody(tomlString, bodyStartIndex, -1, bodyStartLine, lazyValues));
+    }
+    
+    if (parser.errors.hasErrors()) {
+      results.onErrors(parser.errors);
+    }
+
+    return results;
+  }
+  
+  /**
+   * Parses tomlString in segments of at least {@link #SEGMENT_LENGTH} characters, which start at table headers.
+   * The segments are parsed by executor, which also converts the keys that follow each table header to a table. The tables are then added to the results
+   * in document order, which only has to create the tables named by the headers. If a segment contains an error, or tables conflict, the whole document is
+   * parsed again sequentially, so that results and errors are the same as those of {@link #run(Source)}.
+   * 
+   * The headers are found by a {@link HeaderScanner} and each segment is submitted as soon as its end is found.
+   * tomlString must remain readable until this method returns.
+   */
+  static Results run(Source tomlString, ExecutorService executor, boolean lazyValues, Projection projection, boolean failFast) {
+    HeaderScanner scanner = new HeaderScanner(tomlString);
+    List<Future<Segment>> futures = new ArrayList<Future<Segment>>();
+    int segmentStartIndex = 0;
+    int segmentStartLine = 1;
+    
+    while (scanner.find(segmentStartIndex + SEGMENT_LENGTH)) {
+      futures.add(executor.submit(new Segment(tomlString, segmentStartIndex, scanner.headerIndex, segmentStartLine, lazyValues, projection, failFast)));
+      segmentStartIndex = scanner.headerIndex;
+      segmentStartLine = scanner.headerLine;
+    }
+    
+    if (futures.isEmpty()) {
+      return run(tomlString, lazyValues, false, projection, failFast);
+    }
+    
+    futures.add(executor.submit(new Segment(tomlString, segmentStartIndex, -1, segmentStartLine, lazyValues, projection, failFast)));
+    
+    Results results = new Results(failFast);
+    boolean sequential = false;
+    try {
+      for (Future<Segment> future : futures) {
+        Segment segment = future.get();
+        
+        if (segment.hasErrors() || !segment.addTo(results)) {
+          sequential = true;
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      for (Future<Segment> future : futures) {
+        future.cancel(false);
+      }
+    }
+    
+    return sequential ? run(tomlString, lazyValues, false, projection, failFast) : results;
+  }
+  
+  static void run(Source tomlString, TomlHandler handler) {
+    new TomlParser(tomlString, new Results.Errors()).push(handler);
+  }
+  
+  /**
+   * Reads the whole of tomlString without keeping any of its values.
+   * 
+   * @return the errors that {@link #run(Source)} would have found
+   */
+  static Results.Errors validate(Source tomlString) {
+    Validator validator = new Validator();
+    run(tomlString, validator);
+    
+    return validator.errors;
+  }
+  
+  final Results.Errors errors;
+  /**
+   * The table or key of the current line, if any
+   */
+  Identifier identifier;
+  /**
+   * The value of the current line, if any
+   */
+  Object value;
+  /**
+   * The line on which the last event started
+   */
+  int eventLine;
+  /**
+   * The position at which the last table header or key started
+   */
+  int eventIndex;
+  private Source tomlString;
+  final ParseState state;
+  private final boolean lazyValues;
+  private final boolean lazyTables;
+  Projection projection;
+  private String[] tablePath = Projection.ROOT;
+  private boolean skippingKeys = false;
+  private boolean inComment = false;
+  
+  TomlParser(Source tomlString, Results.Errors errors) {
+    this(tomlString, errors, false, false, 0, 1);
+  }
+  
+  /**
+   * @param lazyTables if true, keys after the first table header are skipped, without emitting any events
+   * @param startIndex the position at which to start parsing
+   * @param startLine the line at which startIndex is found
+   */
+  TomlParser(Source tomlString, Results.Errors errors, boolean lazyValues, boolean lazyTables, int startIndex, int startLine) {
+    this.tomlString = tomlString;
+    this.errors = errors;
+    this.lazyValues = lazyValues;
+    this.lazyTables = lazyTables;
+    this.state = new ParseState(errors, new StringBuilder(), new KeyInterner()).moveTo(startIndex - 1, startLine, startIndex > 0 ? ParseState.lineStart(tomlString, startIndex) : 0);
+  }
+  
+  /**
+   * Prepares this parser to read tomlString from its start, keeping its buffers and the keys it has already seen.
+   */
+  TomlParser reset(Source tomlString) {
+    this.tomlString = tomlString;
+    state.moveTo(-1, 1, 0);
+    errors.clear();
+    identifier = null;
+    value = null;
+    eventLine = 0;
+    eventIndex = 0;
+    tablePath = Projection.ROOT;
+    skippingKeys = false;
+    inComment = false;
+    
+    if (state.buffer.capacity() > MAX_RETAINED_BUFFER) {
+      state.buffer.setLength(0);
+      state.buffer.trimToSize();
+    }
+    
+    return this;
+  }
+  
+  /**
+   * Passes all remaining events to handler.
+   */
+  void push(TomlHandler handler) {
+    for (Event event = next(); event != null; event = next()) {
+      if (!push(event, handler)) {
+        return;
+      }
+    }
+    
+    if (errors.hasErrors()) {
+      errors.reportTo(handler);
+    }
+  }
+  
+  /**
+   * @param event the most recent event returned by {@link #next()}
+   * @return false if handler wants to stop reading
+   */
+  boolean push(Event event, TomlHandler handler) {
+    if (event == Event.TABLE_START) {
+      return handler instanceof PathHandler ? ((PathHandler) handler).onTable(identifier.getBareName(), identifier.getPath(), eventLine) : handler.onTable(identifier.getBareName(), eventLine);
+    } else if (event == Event.TABLE_ARRAY_ELEMENT) {
+      return handler instanceof PathHandler ? ((PathHandler) handler).onTableArray(identifier.getBareName(), identifier.getPath(), eventLine) : handler.onTableArray(identifier.getBareName(), eventLine);
+    } else if (event == Event.VALUE) {
+      return handler.onKeyValue(identifier.getName(), value, eventLine);
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Moves to the next table header, key or value.
+   * 
+   * @return null at the end of the source or once errors have been found
+   */
+  Event next() {
+    if (errors.hasErrors()) {
+      return null;
+    }
+    
+    for (int i = ++state.index; tomlString.has(i); i = ++state.index) {
+      char c = tomlString.charAt(i);
 
       if (c == '#' && !inComment) {
         inComment = true;
       } else if (!Character.isWhitespace(c) && !inComment && identifier == null) {
-        Identifier id = IDENTIFIER_CONVERTER.convert(tomlString, index, new Context(null, line, results.errors));
+        eventLine = state.line;
+        eventIndex = i;
+        state.identifier = null;
+        Identifier id = IDENTIFIER_CONVERTER.convert(tomlString, state);
         
-        if (id != Identifier.INVALID) {
+        if (id == Identifier.INVALID) {
+          return null;
+        } else {
+          identifier = id;
+          
           if (id.isKey()) {
-            identifier = id;
+            if (!skippingKeys) {
+              return Event.KEY;
+            }
+          } else if (projection != null && !isProjected(id)) {
+            skippingKeys = true;
           } else if (id.isTable()) {
-            results.startTables(id, line);
+            skippingKeys = lazyTables;
+            return Event.TABLE_START;
           } else if (id.isTableArray()) {
-            results.startTableArray(id, line);
+            skippingKeys = lazyTables;
+            return Event.TABLE_ARRAY_ELEMENT;
           }
         }
       } else if (c == '\n') {
         inComment = false;
         identifier = null;
         value = null;
-        line.incrementAndGet();
+        state.newLine(i);
+        if (!lazyValues && !lazyTables) {
+          tomlString.release(i);
+        }
       } else if (!inComment && identifier != null && identifier.isKey() && value == null && !Character.isWhitespace(c)) {
-        value = ValueReaders.VALUE_READERS.convert(tomlString, index, new Context(identifier, line, results.errors));
+        eventLine = state.line;
+        state.identifier = identifier;
         
-        if (value instanceof Results.Errors) {
-          results.errors.add((Results.Errors) value);
+        if (skippingKeys || (projection != null && !isProjected(identifier, c))) {
+          Results.Errors unterminated = VALUE_READERS.skip(tomlString, state);
+          value = unterminated != null ? unterminated : SKIPPED;
         } else {
-          results.addValue(identifier.getName(), value, line);
+          value = lazyValues ? VALUE_READERS.readLazily(tomlString, state) : VALUE_READERS.convert(tomlString, state);
+        }
+        
+        // Readers add their errors to state.errors
+        if (value instanceof Results.Errors) {
+          return null;
+        } else if (value != SKIPPED) {
+          return Event.VALUE;
         }
       } else if (value != null && !inComment && !Character.isWhitespace(c)) {
-        results.errors.invalidTextAfterIdentifier(identifier, c, line.get());
+        errors.invalidTextAfterIdentifier(identifier, c, state.line, state.column(i));
+        return null;
       }
     }
 
-    return results;
+    return null;
   }
   
-  private TomlParser() {}
+  private boolean isProjected(Identifier table) {
+    tablePath = table.getPath();
+    
+    return projection.selects(tablePath, null) || projection.leadsTo(tablePath, null);
+  }
+  
+  /**
+   * Inline tables are selected in full when a requested path is inside them.
+   */
+  private boolean isProjected(Identifier key, char firstChar) {
+    return projection.selects(tablePath, key.getName()) || (firstChar == '{' && projection.leadsTo(tablePath, key.getName()));
+  }
 }
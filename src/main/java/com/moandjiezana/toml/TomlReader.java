@@ -0,0 +1,94 @@
+package com.moandjiezana.toml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Reads many small TOML sources one after the other, re-using its parser and buffers from one source to the next.</p>
+ * 
+ * <p>Keys are shared between the Toml instances it returns, like the keys of a single document are.
+ * At most 4096 distinct keys are shared, so memory use stays bounded.</p>
+ * 
+ * <p>Not thread-safe: keep one instance per thread, for example in a {@link ThreadLocal}.</p>
+ * 
+ * <p>Example usage:</p>
+ * <pre><code>
+ * TomlReader reader = new TomlReader();
+ * Toml first = reader.read(firstPayload);
+ * Toml second = reader.read(secondPayload);
+ * </code></pre>
+ */
+public class TomlReader {
+  
+  private final Toml defaults;
+  private final TomlParser parser = new TomlParser(new StringSource(""), new Results.Errors());
+  private final Results results = new Results();
+  private final char[] chars = new char[ReaderSource.DEFAULT_BUFFER_SIZE];
+  private final byte[] bytes = new byte[ReaderSource.DEFAULT_BUFFER_SIZE];
+  
+  public TomlReader() {
+    this(null);
+  }
+
+  /**
+   * @param defaults passed to each Toml instance that is read, see {@link Toml#Toml(Toml)}
+   */
+  public TomlReader(Toml defaults) {
+    this.defaults = defaults;
+  }
+  
+  /**
+   * @throws TomlParseException if tomlString is not valid TOML
+   */
+  public Toml read(String tomlString) {
+    return read(new StringSource(tomlString));
+  }
+  
+  /**
+   * @param reader Closed after it has been read.
+   * @throws TomlParseException if reader contains invalid TOML
+   */
+  public Toml read(Reader reader) {
+    try {
+      return read(new ReaderSource(reader, chars));
+    } finally {
+      try {
+        reader.close();
+      } catch (IOException e) {}
+    }
+  }
+  
+  /**
+   * @param inputStream Expected to be encoded as UTF-8. Closed after it has been read.
+   * @throws TomlParseException if inputStream contains invalid TOML
+   */
+  public Toml read(InputStream inputStream) {
+    try {
+      return read(new Utf8StreamSource(inputStream, bytes));
+    } finally {
+      try {
+        inputStream.close();
+      } catch (IOException e) {}
+    }
+  }
+  
+  /**
+   * @param byteBuffer Expected to be encoded as UTF-8. Read from its position to its limit, neither of which is modified.
+   * @throws TomlParseException if byteBuffer contains invalid TOML
+   */
+  public Toml read(ByteBuffer byteBuffer) {
+    return read(new Utf8Source(byteBuffer));
+  }
+  
+  private Toml read(Source source) {
+    parser.reset(source).push(results.reset());
+    
+    if (results.errors.hasErrors()) {
+      throw results.errors.toException();
+    }
+    
+    return new Toml(defaults, results.consume());
+  }
+}
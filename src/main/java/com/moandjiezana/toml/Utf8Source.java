@@ -0,0 +1,52 @@
+package com.moandjiezana.toml;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Reads UTF-8 encoded TOML straight from a {@link ByteBuffer}, one byte per position.
+ * 
+ * All of TOML's syntax is ASCII and no byte of a multi-byte UTF-8 sequence is ever an ASCII character,
+ * so bytes can be scanned as chars. Only the spans returned by {@link #substring(int, int)} are decoded.
+ * 
+ * Can be read by several threads at once.
+ */
+class Utf8Source extends Source {
+
+  static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final ByteBuffer buffer;
+
+  /**
+   * @param buffer read from its current position to its limit. Neither is modified.
+   */
+  Utf8Source(ByteBuffer buffer) {
+    this.buffer = buffer.slice();
+  }
+
+  @Override
+  boolean has(int index) {
+    return index < buffer.limit();
+  }
+
+  @Override
+  char charAt(int index) {
+    return (char) (buffer.get(index) & 0xFF);
+  }
+
+  @Override
+  String substring(int start, int end) {
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + start, end - start, UTF8);
+    }
+
+    int length = end - start;
+    byte[] span = new byte[length];
+
+    for (int i = 0; i < length; i++) {
+      span[i] = buffer.get(start + i);
+    }
+
+    return new String(span, 0, length, UTF8);
+  }
+}
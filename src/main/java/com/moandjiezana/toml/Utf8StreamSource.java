@@ -0,0 +1,100 @@
+package com.moandjiezana.toml;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads UTF-8 encoded TOML from an {@link InputStream} through a refillable byte buffer, scanning bytes as chars like {@link Utf8Source}.
+ * Buffer management follows {@link ReaderSource}, including the normalisation of line endings to \n.
+ */
+class Utf8StreamSource extends Source {
+
+  private final InputStream inputStream;
+  private byte[] buffer;
+  private int offset;
+  private int limit;
+  private int released;
+  private boolean pendingCarriageReturn;
+  private boolean eof;
+
+  Utf8StreamSource(InputStream inputStream) {
+    this(inputStream, ReaderSource.DEFAULT_BUFFER_SIZE);
+  }
+
+  Utf8StreamSource(InputStream inputStream, int bufferSize) {
+    this(inputStream, new byte[bufferSize]);
+  }
+
+  /**
+   * @param buffer used until a line or value does not fit in it. Its contents are overwritten.
+   */
+  Utf8StreamSource(InputStream inputStream, byte[] buffer) {
+    this.inputStream = inputStream;
+    this.buffer = buffer;
+  }
+
+  @Override
+  boolean has(int index) {
+    while (index >= offset + limit && !eof) {
+      fill();
+    }
+
+    return index < offset + limit;
+  }
+
+  @Override
+  char charAt(int index) {
+    return (char) (buffer[index - offset] & 0xFF);
+  }
+
+  @Override
+  String substring(int start, int end) {
+    return new String(buffer, start - offset, end - start, Utf8Source.UTF8);
+  }
+
+  @Override
+  void release(int index) {
+    released = Math.max(released, index);
+  }
+
+  private void fill() {
+    if (limit == buffer.length) {
+      int discardable = released - offset;
+
+      if (discardable > 0) {
+        System.arraycopy(buffer, discardable, buffer, 0, limit - discardable);
+        offset += discardable;
+        limit -= discardable;
+      } else {
+        byte[] newBuffer = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, newBuffer, 0, limit);
+        buffer = newBuffer;
+      }
+    }
+
+    int read;
+    try {
+      read = inputStream.read(buffer, limit, buffer.length - limit);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    if (read == -1) {
+      eof = true;
+      return;
+    }
+
+    int end = limit + read;
+    for (int i = limit; i < end; i++) {
+      byte b = buffer[i];
+
+      if (b == '\n' && pendingCarriageReturn) {
+        pendingCarriageReturn = false;
+        continue;
+      }
+
+      pendingCarriageReturn = b == '\r';
+      buffer[limit++] = pendingCarriageReturn ? (byte) '\n' : b;
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package com.moandjiezana.toml;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Detects the same duplicate keys and tables as {@link Results}, without building any tables, so values can be discarded as soon as they have been read.
+ * 
+ * Each table and table array element is given a number, and every name defined in it is recorded in a single hash table as a (table number, name) pair.
+ */
+class Validator implements PathHandler {
+  
+  /**
+   * Shared by all keys that hold a value
+   */
+  private static final int VALUE = 0;
+  private static final int ROOT = 1;
+  
+  private static final byte KEY = 0;
+  private static final byte TABLE = 1;
+  private static final byte IMPLICIT_TABLE = 2;
+  private static final byte TABLE_ARRAY = 3;
+  
+  final Results.Errors errors = new Results.Errors();
+  
+  private byte[] kinds = new byte[64];
+  private String[] names = new String[64];
+  /**
+   * For table arrays, the number of their last element
+   */
+  private int[] currentElements = new int[64];
+  private int count = 2;
+  
+  private int[] slotParents = new int[64];
+  private String[] slotNames = new String[64];
+  private int[] slotChildren = new int[64];
+  private int size;
+  
+  private int[] stack = new int[16];
+  private int depth;
+  
+  Validator() {
+    kinds[VALUE] = KEY;
+    kinds[ROOT] = TABLE;
+    stack[depth++] = ROOT;
+  }
+
+  @Override
+  public boolean onTable(String name, int line) {
+    return onTable(name, Results.split(name), line);
+  }
+
+  @Override
+  public boolean onTable(String name, String[] path, int line) {
+    startTables(name, path, line);
+    
+    return !errors.hasErrors();
+  }
+
+  @Override
+  public boolean onTableArray(String name, int line) {
+    return onTableArray(name, Results.split(name), line);
+  }
+
+  @Override
+  public boolean onTableArray(String name, String[] path, int line) {
+    startTableArray(name, path, line);
+    
+    return !errors.hasErrors();
+  }
+
+  @Override
+  public boolean onKeyValue(String key, Object value, int line) {
+    addValue(key, value, line);
+    
+    return !errors.hasErrors();
+  }
+
+  @Override
+  public void onError(String message) {
+    errors.add(message);
+  }
+  
+  @Override
+  public void onErrors(Results.Errors errors) {
+    this.errors.add(errors);
+  }
+  
+  private void addValue(String key, Object value, int line) {
+    if (value instanceof Map) {
+      String[] path = getInlineTablePath(key);
+      if (path == null) {
+        startTable(key, false, line);
+      } else {
+        startTables(Results.join(path), path, line);
+      }
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        addValue((String) entry.getKey(), entry.getValue(), line);
+      }
+      // The inline table may not have been started if it is a duplicate
+      if (depth > 1) {
+        depth--;
+      }
+    } else {
+      add(key, VALUE, line);
+    }
+  }
+  
+  private void add(String key, int child, int line) {
+    int table = stack[depth - 1];
+    
+    if (accepts(table, key)) {
+      put(table, key, child);
+    } else if (kinds[get(table, key)] != KEY) {
+      errors.keyDuplicatesTable(key, line);
+    } else {
+      errors.duplicateKey(key, line);
+    }
+  }
+  
+  private void startTables(String tableName, String[] tableParts, int line) {
+    depth = 1;
+    
+    for (int i = 0; i < tableParts.length; i++) {
+      String tablePart = tableParts[i];
+      int table = stack[depth - 1];
+      int child = get(table, tablePart);
+      
+      if (child > VALUE) {
+        if (i == tableParts.length - 1 && kinds[child] != IMPLICIT_TABLE) {
+          errors.duplicateTable(tableName, line);
+          return;
+        }
+        push(child);
+        if (kinds[child] == TABLE_ARRAY) {
+          push(currentElements[child]);
+        }
+      } else if (accepts(table, tablePart)) {
+        startTable(tablePart, i < tableParts.length - 1, line);
+      } else {
+        errors.tableDuplicatesKey(tablePart, line);
+        break;
+      }
+    }
+  }
+  
+  private void startTableArray(String tableName, String[] tableParts, int line) {
+    depth = 1;
+    
+    for (int i = 0; i < tableParts.length; i++) {
+      String tablePart = tableParts[i];
+      boolean last = i == tableParts.length - 1;
+      int table = stack[depth - 1];
+      int child = get(table, tablePart);
+      
+      if (child > VALUE && kinds[child] == TABLE_ARRAY) {
+        push(child);
+        if (last) {
+          // create() may replace currentElements, so it must be called before the array is read
+          int element = create(TABLE, null);
+          currentElements[child] = element;
+        }
+        push(currentElements[child]);
+      } else if (child > VALUE && !last) {
+        push(child);
+      } else if (accepts(table, tablePart)) {
+        int container = create(last ? TABLE_ARRAY : TABLE, null);
+        add(tablePart, container, line);
+        push(container);
+        if (last) {
+          int element = create(TABLE, null);
+          currentElements[container] = element;
+          push(currentElements[container]);
+        }
+      } else {
+        errors.duplicateTable(tableName, line);
+        break;
+      }
+    }
+  }
+  
+  private void startTable(String tableName, boolean implicit, int line) {
+    int table = create(implicit ? IMPLICIT_TABLE : TABLE, tableName);
+    add(tableName, table, line);
+    push(table);
+  }
+  
+  /**
+   * @see Results#getInlineTablePath(String)
+   */
+  private String[] getInlineTablePath(String key) {
+    String[] path = new String[depth];
+    int length = 0;
+    
+    for (int i = 1; i < depth; i++) {
+      int table = stack[i];
+      
+      if (kinds[table] == TABLE_ARRAY) {
+        return null;
+      }
+      
+      if (names[table] == null) {
+        break;
+      }
+      
+      path[length++] = names[table];
+    }
+    
+    path[length++] = key;
+    
+    return Arrays.copyOf(path, length);
+  }
+  
+  private boolean accepts(int table, String key) {
+    int child = get(table, key);
+    
+    return child < 0 || kinds[child] == TABLE_ARRAY;
+  }
+  
+  private int create(byte kind, String name) {
+    if (count == kinds.length) {
+      kinds = Arrays.copyOf(kinds, count * 2);
+      names = Arrays.copyOf(names, count * 2);
+      currentElements = Arrays.copyOf(currentElements, count * 2);
+    }
+    
+    kinds[count] = kind;
+    names[count] = name;
+    
+    return count++;
+  }
+  
+  private void push(int table) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+    }
+    
+    stack[depth++] = table;
+  }
+  
+  /**
+   * @return the number of the table or table array called name in table, {@link #VALUE} or -1 if there is none
+   */
+  private int get(int table, String name) {
+    int mask = slotNames.length - 1;
+    
+    for (int slot = hash(table, name) & mask; slotNames[slot] != null; slot = (slot + 1) & mask) {
+      if (slotParents[slot] == table && slotNames[slot].equals(name)) {
+        return slotChildren[slot];
+      }
+    }
+    
+    return -1;
+  }
+  
+  private void put(int table, String name, int child) {
+    int mask = slotNames.length - 1;
+    int slot = hash(table, name) & mask;
+    
+    while (slotNames[slot] != null) {
+      if (slotParents[slot] == table && slotNames[slot].equals(name)) {
+        slotChildren[slot] = child;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    
+    slotParents[slot] = table;
+    slotNames[slot] = name;
+    slotChildren[slot] = child;
+    size++;
+    
+    if (size * 2 > slotNames.length) {
+      rehash();
+    }
+  }
+  
+  private void rehash() {
+    int[] parents = slotParents;
+    String[] previousNames = slotNames;
+    int[] children = slotChildren;
+    slotParents = new int[parents.length * 2];
+    slotNames = new String[parents.length * 2];
+    slotChildren = new int[parents.length * 2];
+    int mask = slotNames.length - 1;
+    
+    for (int i = 0; i < previousNames.length; i++) {
+      if (previousNames[i] != null) {
+        int slot = hash(parents[i], previousNames[i]) & mask;
+        while (slotNames[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        slotParents[slot] = parents[i];
+        slotNames[slot] = previousNames[i];
+        slotChildren[slot] = children[i];
+      }
+    }
+  }
+  
+  private static int hash(int table, String name) {
+    int hash = 31 * table + name.hashCode();
+    
+    return hash ^ (hash >>> 16);
+  }
+}
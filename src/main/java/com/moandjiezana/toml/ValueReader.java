@@ -1,21 +1,29 @@
 package com.moandjiezana.toml;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 interface ValueReader {
 
   /**
-   * @param s must already have been trimmed
+   * Only inspects s, the index is not moved and no characters are copied.
+   * 
+   * @param s the whole TOML source
+   * @param index position of the first non-whitespace character of the value
    */
-  boolean canRead(String s);
+  boolean canRead(Source s, int index);
   
   /**
    * Partial validation. Stops after type terminator, rather than at EOI.
    * 
-   * @param s  must already have been validated by {@link #canRead(String)}
-   * @param index where to start in s
-   * @param line current line number, used for error reporting 
-   * @return a value or a {@link Results.Errors}
+   * @param s  must already have been validated by {@link #canRead(Source, int)}
+   * @param state its index is where to start in s, and is left on the value's last character
+   * @return a value, or the state's {@link Results.Errors} once the errors have been added to them
+   */
+  Object read(Source s, ParseState state);
+  
+  /**
+   * Moves index to the end of the value, like {@link #read(Source, ParseState)}, without converting it.
+   * Only checks that the value is terminated.
+   * 
+   * @return null, or the state's {@link Results.Errors} if the value is not terminated
    */
-  Object read(String s, AtomicInteger index, Context context);
+  Results.Errors skip(Source s, ParseState state);
 }
@@ -10,28 +10,110 @@ import static com.moandjiezana.toml.MultilineStringValueReader.MULTILINE_STRING_
 import static com.moandjiezana.toml.NumberValueReaderWriter.NUMBER_VALUE_READER_WRITER;
 import static com.moandjiezana.toml.StringValueReaderWriter.STRING_VALUE_READER_WRITER;
 
-import java.util.concurrent.atomic.AtomicInteger;
 
 class ValueReaders {
   
   static final ValueReaders VALUE_READERS = new ValueReaders();
   
-  Object convert(String value, AtomicInteger index, Context context) {
-    String substring = value.substring(index.get());
-    for (ValueReader valueParser : READERS) {
-      if (valueParser.canRead(substring)) {
-        return valueParser.read(value, index, context);
-      }
+  Object convert(Source value, ParseState state) {
+    int startIndex = state.index;
+    ValueReader valueReader = readerFor(value, startIndex);
+    
+    if (valueReader != null) {
+      return valueReader.read(value, state);
+    }
+    
+    return invalidValue(value, startIndex, state);
+  }
+  
+  Results.Errors skip(Source value, ParseState state) {
+    int startIndex = state.index;
+    ValueReader valueReader = readerFor(value, startIndex);
+    
+    if (valueReader != null) {
+      return valueReader.skip(value, state);
+    }
+    
+    return invalidValue(value, startIndex, state);
+  }
+  
+  /**
+   * Like {@link #convert(Source, ParseState)}, but only inline tables are converted immediately.
+   * 
+   * @return a {@link LazyValue}, an inline table or a {@link Results.Errors}
+   */
+  Object readLazily(Source value, ParseState state) {
+    int startIndex = state.index;
+    ValueReader valueReader = readerFor(value, startIndex);
+    
+    if (valueReader == null || valueReader == INLINE_TABLE_VALUE_READER) {
+      return convert(value, state);
+    }
+    
+    int startLine = state.line;
+    int startColumn = state.column(startIndex);
+    Results.Errors errors = valueReader.skip(value, state);
+    
+    if (errors != null) {
+      return errors;
+    }
+    
+    return new LazyValue(valueReader, value, startIndex, state.index, state.identifier, startLine, startColumn);
+  }
+  
+  private Results.Errors invalidValue(Source value, int startIndex, ParseState state) {
+    int endOfLine = value.indexOf('\n', startIndex);
+    
+    state.errors.invalidValue(state.identifier.getName(), endOfLine > -1 ? value.substring(startIndex, endOfLine) : value.substring(startIndex), state.line, state.column(startIndex));
+    return state.errors;
+  }
+  
+  /**
+   * Picks a reader from the value's first character. Only quotes and digits are shared by more than one reader.
+   */
+  ValueReader readerFor(Source s, int index) {
+    char c = s.charAt(index);
+    
+    if (c >= READERS_BY_FIRST_CHAR.length) {
+      return null;
     }
     
-    Results.Errors errors = new Results.Errors();
-    errors.invalidValue(context.identifier.getName(), substring, context.line.get());
-    return errors;
+    ValueReader valueReader = READERS_BY_FIRST_CHAR[c];
+    
+    if (valueReader == STRING_VALUE_READER_WRITER && MULTILINE_STRING_VALUE_READER.canRead(s, index)) {
+      return MULTILINE_STRING_VALUE_READER;
+    }
+    
+    if (valueReader == LITERAL_STRING_VALUE_READER && MULTILINE_LITERAL_STRING_VALUE_READER.canRead(s, index)) {
+      return MULTILINE_LITERAL_STRING_VALUE_READER;
+    }
+    
+    if (valueReader == NUMBER_VALUE_READER_WRITER && c != '+' && c != '-' && DATE_VALUE_READER_WRITER.canRead(s, index)) {
+      return DATE_VALUE_READER_WRITER;
+    }
+    
+    if (valueReader == BOOLEAN_VALUE_READER_WRITER && !BOOLEAN_VALUE_READER_WRITER.canRead(s, index)) {
+      return null;
+    }
+    
+    return valueReader;
   }
   
   private ValueReaders() {}
   
-  private static final ValueReader[] READERS = { 
-    MULTILINE_STRING_VALUE_READER, MULTILINE_LITERAL_STRING_VALUE_READER, LITERAL_STRING_VALUE_READER, STRING_VALUE_READER_WRITER, DATE_VALUE_READER_WRITER, NUMBER_VALUE_READER_WRITER, BOOLEAN_VALUE_READER_WRITER, ARRAY_VALUE_READER, INLINE_TABLE_VALUE_READER
-  };
+  private static final ValueReader[] READERS_BY_FIRST_CHAR = new ValueReader[128];
+  
+  static {
+    READERS_BY_FIRST_CHAR['"'] = STRING_VALUE_READER_WRITER;
+    READERS_BY_FIRST_CHAR['\''] = LITERAL_STRING_VALUE_READER;
+    READERS_BY_FIRST_CHAR['t'] = BOOLEAN_VALUE_READER_WRITER;
+    READERS_BY_FIRST_CHAR['f'] = BOOLEAN_VALUE_READER_WRITER;
+    READERS_BY_FIRST_CHAR['['] = ARRAY_VALUE_READER;
+    READERS_BY_FIRST_CHAR['{'] = INLINE_TABLE_VALUE_READER;
+    READERS_BY_FIRST_CHAR['+'] = NUMBER_VALUE_READER_WRITER;
+    READERS_BY_FIRST_CHAR['-'] = NUMBER_VALUE_READER_WRITER;
+    for (char c = '0'; c <= '9'; c++) {
+      READERS_BY_FIRST_CHAR[c] = NUMBER_VALUE_READER_WRITER;
+    }
+  }
 }
@@ -3,6 +3,7 @@ package com.moandjiezana.toml;
 import static com.moandjiezana.toml.BooleanValueReaderWriter.BOOLEAN_VALUE_READER_WRITER;
 import static com.moandjiezana.toml.DateValueReaderWriter.DATE_PARSER_JDK_6;
 import static com.moandjiezana.toml.DateValueReaderWriter.DATE_VALUE_READER_WRITER;
+import static com.moandjiezana.toml.JavaTimeValueWriter.JAVA_TIME_VALUE_WRITER;
 import static com.moandjiezana.toml.MapValueWriter.MAP_VALUE_WRITER;
 import static com.moandjiezana.toml.NumberValueReaderWriter.NUMBER_VALUE_READER_WRITER;
 import static com.moandjiezana.toml.ObjectValueWriter.OBJECT_VALUE_WRITER;
@@ -33,6 +34,6 @@ class ValueWriters {
 
   private static final ValueWriter[] VALUE_WRITERS = {
       STRING_VALUE_READER_WRITER, NUMBER_VALUE_READER_WRITER, BOOLEAN_VALUE_READER_WRITER, getPlatformSpecificDateConverter(),
-      MAP_VALUE_WRITER, PRIMITIVE_ARRAY_VALUE_WRITER, TABLE_ARRAY_VALUE_WRITER
+      JAVA_TIME_VALUE_WRITER, MAP_VALUE_WRITER, PRIMITIVE_ARRAY_VALUE_WRITER, TABLE_ARRAY_VALUE_WRITER
   };
 }
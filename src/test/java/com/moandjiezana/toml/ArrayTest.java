@@ -3,6 +3,7 @@ package com.moandjiezana.toml;
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -104,6 +105,62 @@ public class ArrayTest {
     assertEquals("12", toml.getString("points[3].z"));
   }
   
+  @Test
+  public void should_get_long_array() throws Exception {
+    Toml toml = new Toml().read("a = [1, -2, 3_000, 16]\nb = []");
+    
+    assertArrayEquals(new long[] { 1, -2, 3000, 16 }, toml.getLongArray("a"));
+    assertEquals(asList(1L, -2L, 3000L, 16L), toml.getList("a"));
+    assertArrayEquals(new long[0], toml.getLongArray("b"));
+    assertNull(toml.getLongArray("c"));
+  }
+  
+  @Test
+  public void should_get_double_array() throws Exception {
+    Toml toml = new Toml().read("a = [1.5, -2.0, 3e2]");
+    
+    assertArrayEquals(new double[] { 1.5, -2.0, 300 }, toml.getDoubleArray("a"), 0);
+    assertEquals(asList(1.5, -2.0, 300.0), toml.getList("a"));
+    assertEquals(-2.0, toml.getDouble("a[1]"), 0);
+  }
+  
+  @Test
+  public void should_get_long_arrays_nested_in_arrays() throws Exception {
+    Toml toml = new Toml().read("a = [[1, 2], [], [\"b\"], [3.0]]");
+    
+    assertArrayEquals(new long[] { 1, 2 }, toml.getLongArray("a[0]"));
+    assertEquals(asList(asList(1L, 2L), asList(), asList("b"), asList(3.0)), toml.getList("a"));
+  }
+  
+  @Test
+  public void should_modify_number_lists_like_array_lists() throws Exception {
+    Toml toml = new Toml().read("a = [1, 2, 3]\nb = [1.5]");
+    List<Long> longs = toml.getList("a");
+    List<Double> doubles = toml.getList("b");
+    
+    assertEquals(Long.valueOf(2), longs.set(1, 20L));
+    longs.add(4L);
+    longs.add(0, 0L);
+    assertEquals(Long.valueOf(3), longs.remove(3));
+    longs.addAll(asList(5L, 6L, 7L, 8L, 9L, 10L, 11L));
+    assertEquals(asList(0L, 1L, 20L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), longs);
+    
+    doubles.remove(0);
+    doubles.add(2.5);
+    assertEquals(asList(2.5), toml.getList("b"));
+    assertArrayEquals(new double[] { 2.5 }, toml.getDoubleArray("b"), 0);
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_integers_mixed_with_floats() throws Exception {
+    new Toml().read("a = [1, 2.0]");
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_numbers_mixed_with_strings() throws Exception {
+    new Toml().read("a = [1, \"b\"]");
+  }
+  
   private File file(String file) {
     return Utils.file(getClass(), file);
   }
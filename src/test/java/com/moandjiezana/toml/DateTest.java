@@ -1,7 +1,13 @@
 package com.moandjiezana.toml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.TimeZone;
 
@@ -66,8 +72,98 @@ public class DateTest {
     assertEquals(calendar.getTime(), toml.getDate("a_date"));
   }
 
+  @Test
+  public void should_get_date_with_short_and_long_fractional_seconds() throws Exception {
+    Toml toml = new Toml().read("short = 1979-05-27T00:32:00.5Z\nlong = 1979-05-27T00:32:00.123456789Z");
+
+    Calendar calendar = Calendar.getInstance(UTC);
+    calendar.set(1979, Calendar.MAY, 27, 0, 32, 00);
+    calendar.set(Calendar.MILLISECOND, 500);
+    assertEquals(calendar.getTime(), toml.getDate("short"));
+    
+    calendar.set(Calendar.MILLISECOND, 123);
+    assertEquals(calendar.getTime(), toml.getDate("long"));
+  }
+  
+  @Test
+  public void should_get_leap_day() throws Exception {
+    Toml toml = new Toml().read("a_date = 2000-02-29T12:00:00Z");
+
+    Calendar calendar = Calendar.getInstance(UTC);
+    calendar.set(2000, Calendar.FEBRUARY, 29, 12, 0, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+
+    assertEquals(calendar.getTime(), toml.getDate("a_date"));
+  }
+  
+  @Test
+  public void should_get_date_before_gregorian_calendar() throws Exception {
+    Toml toml = new Toml().read("a_date = 1500-02-29T00:00:00Z");
+
+    Calendar calendar = Calendar.getInstance(UTC);
+    calendar.set(1500, Calendar.FEBRUARY, 29, 0, 0, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+
+    assertEquals(calendar.getTime(), toml.getDate("a_date"));
+  }
+
   @Test(expected = IllegalStateException.class)
   public void should_fail_on_non_existant_date() throws Exception {
     new Toml().read("d = 2012-13-01T15:00:00Z");
   }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_non_existant_leap_day() throws Exception {
+    new Toml().read("d = 1900-02-29T15:00:00Z");
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_text_after_zone() throws Exception {
+    new Toml().read("d = 2012-01-01T15:00:00Z5");
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_missing_fractional_seconds() throws Exception {
+    new Toml().read("d = 2012-01-01T15:00:00.Z");
+  }
+  
+  @Test
+  public void should_get_instant() throws Exception {
+    Toml toml = new Toml().read("a_date = 1979-05-27T00:32:00.999-07:00");
+    
+    assertEquals(Instant.parse("1979-05-27T07:32:00.999Z"), TomlJavaTime.getInstant(toml, "a_date"));
+  }
+  
+  @Test
+  public void should_get_date_time_at_utc() throws Exception {
+    Toml toml = new Toml().read("a_date = 1979-05-27T00:32:00-07:00");
+    
+    assertEquals(OffsetDateTime.of(1979, 5, 27, 7, 32, 0, 0, ZoneOffset.UTC), TomlJavaTime.getUtcDateTime(toml, "a_date"));
+  }
+  
+  @Test
+  public void should_get_local_date_at_utc() throws Exception {
+    Toml toml = new Toml().read("a = 1979-05-27T20:32:00-07:00\nb = 1969-12-31T23:59:59.999Z");
+    
+    assertEquals(LocalDate.of(1979, 5, 28), TomlJavaTime.getUtcDate(toml, "a"));
+    assertEquals(LocalDate.of(1969, 12, 31), TomlJavaTime.getUtcDate(toml, "b"));
+  }
+  
+  @Test
+  public void should_fall_back_to_default_java_time_values() throws Exception {
+    Toml toml = new Toml().read("");
+    Instant instant = Instant.EPOCH;
+    
+    assertNull(TomlJavaTime.getInstant(toml, "a"));
+    assertEquals(instant, TomlJavaTime.getInstant(toml, "a", instant));
+    assertEquals(instant.atOffset(ZoneOffset.UTC), TomlJavaTime.getUtcDateTime(toml, "a", instant.atOffset(ZoneOffset.UTC)));
+    assertEquals(LocalDate.of(1970, 1, 1), TomlJavaTime.getUtcDate(toml, "a", LocalDate.of(1970, 1, 1)));
+  }
+  
+  @Test
+  public void should_keep_java_time_out_of_toml_signatures() throws Exception {
+    for (java.lang.reflect.Method method : Toml.class.getDeclaredMethods()) {
+      assertFalse(method.toString(), method.toString().contains("java.time"));
+    }
+  }
 }
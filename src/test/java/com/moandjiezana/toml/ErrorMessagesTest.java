@@ -1,5 +1,10 @@
 package com.moandjiezana.toml;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -58,6 +63,13 @@ public class ErrorMessagesTest {
     new Toml().read("k = 1 t");
   }
   
+  @Test
+  public void invalid_value_only_shows_rest_of_line() throws Exception {
+    e.expectMessage("Invalid value on line 2: k = abc");
+    
+    new Toml().read("a = 1\nk = abc\nb = 2");
+  }
+  
   @Test
   public void unterminated_multiline_literal_string() throws Exception {
     e.expectMessage("Unterminated value on line 1: k = '''abc");
@@ -134,4 +146,86 @@ public class ErrorMessagesTest {
     
     new Toml().read("[table]\n\n k = [\"\"\"\nabc\n\ndef\n\"\"\"\n, \n # comment \n j = 4.,\n l = 5\n]");
   }
+  
+  @Test
+  public void should_describe_errors() throws Exception {
+    try {
+      new Toml().read("a = 1\nb = [1, 'x']");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(1, e.getErrors().size());
+      TomlError error = e.getErrors().get(0);
+      assertEquals(TomlError.Kind.HETEROGENEOUS_ARRAY, error.getKind());
+      assertEquals("b", error.getKey());
+      assertEquals(2, error.getLine());
+      assertEquals(9, error.getColumn());
+      assertEquals("b becomes a heterogeneous array on line 2", error.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_report_all_errors_in_value() throws Exception {
+    try {
+      new Toml().read("a = [1, 'x', 2.0");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(3, e.getErrors().size());
+      assertEquals(TomlError.Kind.UNTERMINATED_VALUE, e.getErrors().get(2).getKind());
+    }
+  }
+  
+  @Test
+  public void should_stop_at_first_error_when_failing_fast() throws Exception {
+    try {
+      new Toml().failFast().read("a = [1, 'x', 2.0");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(1, e.getErrors().size());
+      assertEquals(TomlError.Kind.HETEROGENEOUS_ARRAY, e.getErrors().get(0).getKind());
+      assertEquals("a becomes a heterogeneous array on line 1", e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_report_column_of_invalid_value() throws Exception {
+    List<TomlError> errors = Toml.validate("[a]\n  b = 1\n  c = [\n    1,\n    x\n  ]");
+    
+    assertEquals(1, errors.size());
+    assertEquals(5, errors.get(0).getLine());
+    assertEquals(5, errors.get(0).getColumn());
+  }
+  
+  @Test
+  public void should_report_column_of_lazy_value() throws Exception {
+    Toml toml = new Toml().lazyValues().read("a = 1\n  b = 2017-13-01T00:00:00Z");
+    
+    try {
+      toml.getDate("b");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(2, e.getErrors().get(0).getLine());
+      assertEquals(7, e.getErrors().get(0).getColumn());
+    }
+  }
+  
+  @Test
+  public void should_report_column_in_lazy_table() throws Exception {
+    Toml toml = new Toml().lazyTables().read("[a]\nb = 1\n[c]\n d = 2017-13-01T00:00:00Z\n");
+    
+    try {
+      toml.getDate("c.d");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(4, e.getErrors().get(0).getLine());
+      assertEquals(6, e.getErrors().get(0).getColumn());
+    }
+  }
+  
+  @Test
+  public void should_not_report_column_of_duplicate_key() throws Exception {
+    List<TomlError> errors = Toml.validate("a = 1\na = 2");
+    
+    assertEquals(TomlError.Kind.DUPLICATE_KEY, errors.get(0).getKind());
+    assertEquals(-1, errors.get(0).getColumn());
+  }
 }
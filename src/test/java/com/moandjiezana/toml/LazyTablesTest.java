@@ -0,0 +1,107 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LazyTablesTest {
+
+  @Test
+  public void should_get_values_from_lazy_tables() throws Exception {
+    Toml toml = new Toml().lazyTables().read(new StringReader("a = 1\n[b] # comment\nc = 'd'\n[b.e]\nf = [\n  '[g]',\n  '[[x]]'\n]\n[[h]]\ni = { j = 3 }\n[[h]]\ni = { j = 4 }\n[k]"));
+    
+    assertEquals(1L, toml.getLong("a").longValue());
+    assertEquals("d", toml.getString("b.c"));
+    assertEquals("d", toml.getTable("b").getString("c"));
+    assertEquals(Arrays.asList("[g]", "[[x]]"), toml.getTable("b").getTable("e").getList("f"));
+    assertEquals(3L, toml.getLong("h[0].i.j").longValue());
+    assertEquals(4L, toml.getTables("h").get(1).getTable("i").getLong("j").longValue());
+    assertTrue(toml.getTable("k").isEmpty());
+  }
+  
+  @Test
+  public void should_be_same_as_eager_tables() throws Exception {
+    for (String name : Arrays.asList("example.toml", "hard_example.toml", "example-v0.4.0.toml", "fruit_table_array.toml")) {
+      File file = new File(getClass().getResource(name).getFile());
+      
+      assertEquals(name, new Toml().read(file).toMap(), new Toml().lazyTables().read(file).toMap());
+      assertEquals(name, new Toml().read(file).toMap(), new Toml().lazyTables().lazyValues().read(file).toMap());
+    }
+  }
+  
+  @Test
+  public void should_report_same_error_as_eager_tables() throws Exception {
+    File file = new File(getClass().getResource("burntsushi/invalid/duplicate-key-table.toml").getFile());
+    TomlError eager = null;
+    
+    try {
+      new Toml().read(file);
+      fail();
+    } catch (TomlParseException e) {
+      eager = e.getErrors().get(0);
+    }
+    
+    try {
+      new Toml().lazyTables().read(file);
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(1, e.getErrors().size());
+      assertEquals(TomlError.Kind.TABLE_DUPLICATES_KEY, e.getErrors().get(0).getKind());
+      assertEquals(eager.getKind(), e.getErrors().get(0).getKind());
+      assertEquals(eager.getLine(), e.getErrors().get(0).getLine());
+      assertEquals(eager.getMessage(), e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_fail_on_duplicate_table_when_read() throws Exception {
+    try {
+      new Toml().lazyTables().read("[a]\nb = 1\n[a]");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Duplicate table definition on line 3: [a]", e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_fail_on_unterminated_value_when_read() throws Exception {
+    try {
+      new Toml().lazyTables().read("[a]\nb = \"c\n[d]");
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Unterminated value on line 2: b = "));
+    }
+  }
+  
+  @Test
+  public void should_only_fail_on_duplicate_key_when_table_is_accessed() throws Exception {
+    Toml toml = new Toml().lazyTables().read("[a]\nb = 1\n\nb = 2\n[c]\nd = 3");
+    
+    assertEquals(3L, toml.getLong("c.d").longValue());
+    
+    for (int i = 0; i < 2; i++) {
+      try {
+        toml.getTable("a").getLong("b");
+        fail();
+      } catch (IllegalStateException e) {
+        assertEquals("Duplicate key on line 4: b", e.getMessage());
+      }
+    }
+  }
+  
+  @Test
+  public void should_fail_on_table_duplicating_key_when_read() throws Exception {
+    try {
+      new Toml().lazyTables().read("[a]\nb = 1\n[a.b]\nc = 2");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Key already exists for table defined on line 3: [b]", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class LazyValuesTest {
+
+  @Test
+  public void should_get_lazy_values() throws Exception {
+    Toml toml = new Toml().lazyValues().read("a = \"a\\tb\"\nb = 'c'\nc = \"\"\"\nd\\\n  e\"\"\"\nd = '''\nf'''\ne = -1_000\nf = 1.5e2\ng = true\nh = 1979-05-27T07:32:00Z\ni = [[1, 2], [\"a\"]] # comment");
+    
+    Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    calendar.set(1979, Calendar.MAY, 27, 7, 32, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+    
+    assertEquals("a\tb", toml.getString("a"));
+    assertEquals("c", toml.getString("b"));
+    assertEquals("de", toml.getString("c"));
+    assertEquals("f", toml.getString("d"));
+    assertEquals(-1000L, toml.getLong("e").longValue());
+    assertEquals(150.0, toml.getDouble("f").doubleValue(), 0.0);
+    assertTrue(toml.getBoolean("g"));
+    assertEquals(calendar.getTime(), toml.getDate("h"));
+    assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList("a")), toml.getList("i"));
+  }
+  
+  @Test
+  public void should_get_lazy_values_in_tables() throws Exception {
+    Toml toml = new Toml().lazyValues().read(new StringReader("[a.b]\nc = 1\n[[d]]\ne = 'f'\n[[d]]\ne = 'g'\nh = { i = 2 }"));
+    
+    assertEquals(1L, toml.getLong("a.b.c").longValue());
+    assertEquals(1L, toml.getTable("a").getTable("b").getLong("c").longValue());
+    assertEquals("f", toml.getString("d[0].e"));
+    assertEquals("g", toml.getTables("d").get(1).getString("e"));
+    assertEquals(2L, toml.getLong("d[1].h.i").longValue());
+  }
+  
+  @Test
+  public void should_be_same_as_eager_values() throws Exception {
+    for (String name : Arrays.asList("example.toml", "hard_example.toml", "example-v0.4.0.toml")) {
+      File file = new File(getClass().getResource(name).getFile());
+      
+      assertEquals(name, new Toml().read(file).toMap(), new Toml().lazyValues().read(file).toMap());
+    }
+  }
+  
+  @Test
+  public void should_convert_lazy_values_to_class() throws Exception {
+    Toml toml = new Toml().lazyValues().read("string = 'a'\nnumber = 1");
+    
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = toml.to(Map.class);
+    
+    assertEquals("a", map.get("string"));
+    assertEquals(1.0, map.get("number"));
+    assertEquals(2, toml.entrySet().size());
+  }
+  
+  @Test
+  public void should_only_fail_when_invalid_value_is_requested() throws Exception {
+    Toml toml = new Toml().lazyValues().read("a = 1\nb = 1979-13-27T07:32:00Z\nc = 1.2.3\nd = [1, 'a']");
+    
+    assertEquals(1L, toml.getLong("a").longValue());
+    
+    try {
+      toml.getDate("b");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Invalid value on line 2: b = 1979-13-27T07:32:00Z", e.getMessage());
+    }
+    
+    try {
+      toml.getDouble("c");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Invalid value on line 3: c = 1.2.3", e.getMessage());
+    }
+    
+    try {
+      toml.getList("d");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("d becomes a heterogeneous array on line 4", e.getMessage());
+    }
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_unterminated_value_when_read() throws Exception {
+    new Toml().lazyValues().read("a = [1, 2");
+  }
+}
@@ -87,6 +87,31 @@ public class NumberTest {
     assertEquals(12345L, toml.getLong("val").longValue());
   }
   
+  @Test
+  public void should_get_exponent_without_rounding_errors() throws Exception {
+    Toml toml = new Toml().read("a = 1.1e-5\nb = 1.23e22\nc = -9.87E-7\nd = 1.7976931348623157e308\ne = 4.9e-324\nf = 123456789012345678901234567890.0");
+    
+    assertEquals(1.1e-5, toml.getDouble("a"), 0.0);
+    assertEquals(1.23e22, toml.getDouble("b"), 0.0);
+    assertEquals(-9.87e-7, toml.getDouble("c"), 0.0);
+    assertEquals(Double.MAX_VALUE, toml.getDouble("d"), 0.0);
+    assertEquals(Double.MIN_VALUE, toml.getDouble("e"), 0.0);
+    assertEquals(123456789012345678901234567890.0, toml.getDouble("f"), 0.0);
+  }
+  
+  @Test
+  public void should_get_largest_and_smallest_integers() throws Exception {
+    Toml toml = new Toml().read("max = 9223372036854775807\nmin = -9223372036854775808");
+    
+    assertEquals(Long.MAX_VALUE, toml.getLong("max").longValue());
+    assertEquals(Long.MIN_VALUE, toml.getLong("min").longValue());
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_integer_overflow() throws Exception {
+    new Toml().read("a = 9223372036854775808");
+  }
+  
   @Test(expected = IllegalStateException.class)
   public void should_fail_on_invalid_number() throws Exception {
     new Toml().read("a = 200-");
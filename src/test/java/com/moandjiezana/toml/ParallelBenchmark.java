@@ -0,0 +1,60 @@
+package com.moandjiezana.toml;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares sequential and parallel reading of a large generated document, and measures the time taken to split it at table headers.
+ *
+ * Not run by the build. Run its main method with the number of threads as an optional argument.
+ */
+public class ParallelBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+    String toml = generate(50000);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    System.out.println(toml.length() + " characters, " + threads + " threads");
+
+    try {
+      for (int i = 0; i < 10; i++) {
+        long start = System.nanoTime();
+        new Toml().read(toml);
+        long sequential = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        new Toml().parallel(executor).read(toml);
+        long parallel = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        HeaderScanner scanner = new HeaderScanner(new StringSource(toml));
+        for (int index = 0; scanner.find(index); index = scanner.headerIndex + TomlParser.SEGMENT_LENGTH) {}
+        long split = System.nanoTime() - start;
+
+        System.out.println("sequential " + sequential / 1000000 + "ms, parallel " + parallel / 1000000 + "ms, split " + split / 1000000 + "ms");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static String generate(int tables) {
+    StringBuilder sb = new StringBuilder("title = 'generated'\n");
+
+    for (int i = 0; i < tables; i++) {
+      sb.append("[route").append(i).append("]\n")
+        .append("destination = \"10.").append(i % 256).append(".0.0/16\"\n")
+        .append("gateway = '192.168.").append(i % 256).append(".1'\n")
+        .append("metric = ").append(i).append('\n')
+        .append("weights = [0.5, 1.5, 2.5]\n")
+        .append("description = '''\n[not.a.table]\n'''\n")
+        .append("tags = [\n  \"a\",\n  \"b\", # [not.a.table]\n]\n")
+        .append("[[route").append(i).append(".hops]]\n")
+        .append("address = \"10.0.0.").append(i % 256).append("\"\n")
+        .append("options = { mtu = 1500, name = \"[x]\" }\n\n");
+    }
+
+    return sb.toString();
+  }
+}
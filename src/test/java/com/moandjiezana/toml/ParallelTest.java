@@ -0,0 +1,130 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelTest {
+  
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void should_read_same_values_as_sequential_parsing() throws Exception {
+    String toml = generate(2000, "");
+    
+    assertEquals(new Toml().read(toml).toMap(), new Toml().parallel(executor).read(toml).toMap());
+    assertEquals(new Toml().read(toml).toMap(), new Toml().parallel(executor).read(new StringReader(toml)).toMap());
+    assertEquals(new Toml().read(toml).toMap(), new Toml().parallel(executor).read(ByteBuffer.wrap(toml.getBytes("UTF-8"))).toMap());
+    assertEquals(new Toml().read(toml).toMap(), new Toml().parallel(executor).lazyValues().read(toml).toMap());
+  }
+  
+  @Test
+  public void should_read_requested_key_paths() throws Exception {
+    String toml = generate(2000, "");
+    
+    assertEquals(new Toml().read(toml, "table1999", "array.name").toMap(), new Toml().parallel(executor).read(toml, "table1999", "array.name").toMap());
+  }
+  
+  @Test
+  public void should_read_small_document() throws Exception {
+    assertEquals(1L, new Toml().parallel(executor).read("[a]\nb = 1").getLong("a.b").longValue());
+  }
+  
+  @Test
+  public void should_only_convert_lazy_values_when_requested() throws Exception {
+    Toml toml = new Toml().parallel(executor).lazyValues().read(generate(2000, "[late]\nc = 1.2.3\nd = 1\n[late.sub]\ne = 2\n"));
+
+    assertEquals(1L, toml.getLong("late.d").longValue());
+    assertEquals(2L, toml.getLong("late.sub.e").longValue());
+
+    try {
+      toml.getDouble("late.c");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Invalid value on line 30003: c = 1.2.3", e.getMessage());
+    }
+  }
+
+  @Test
+  public void should_only_find_headers_at_the_start_of_lines_outside_values() throws Exception {
+    String toml = "a = \"\"\"x \"\" \\\\\n[no]\n\"\"\"\nb = [\n  [1],\n  [2], # it's [no]\n]\nc = \"it's [no]\"\n[ yes ] # it's\nd = '''\n[no]\n'''\n  [[more]]\n";
+    HeaderScanner scanner = new HeaderScanner(new StringSource(toml));
+
+    assertTrue(scanner.find(0));
+    assertEquals(toml.indexOf("[ yes ]"), scanner.headerIndex);
+    assertEquals(9, scanner.headerLine);
+    assertTrue(scanner.find(0));
+    assertEquals(toml.indexOf("[[more]]"), scanner.headerIndex);
+    assertEquals(13, scanner.headerLine);
+    assertFalse(scanner.find(0));
+    assertEquals(1, new Toml().read(toml).getTables("more").size());
+  }
+
+  @Test
+  public void should_report_same_duplicate_table_error_as_sequential_parsing() throws Exception {
+    assertSameError(generate(2000, "[table3]\n"));
+  }
+  
+  @Test
+  public void should_report_same_duplicate_key_error_as_sequential_parsing() throws Exception {
+    assertSameError(generate(2000, "[table1500]\nkey = 'c'\n[table1500.subtable]\n"));
+  }
+  
+  @Test
+  public void should_report_same_invalid_value_error_as_sequential_parsing() throws Exception {
+    assertSameError(generate(2000, "[late]\nkey = 1.2.3\n") + "[table0]\n");
+  }
+  
+  @Test
+  public void should_report_same_unterminated_value_error_as_sequential_parsing() throws Exception {
+    assertSameError(generate(2000, "[late]\nkey = [1, 2\n"));
+  }
+  
+  private void assertSameError(String toml) {
+    String expected = null;
+    try {
+      new Toml().read(toml);
+      fail();
+    } catch (IllegalStateException e) {
+      expected = e.getMessage();
+    }
+    
+    try {
+      new Toml().parallel(executor).read(toml);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals(expected, e.getMessage());
+    }
+  }
+  
+  private static String generate(int tables, String tail) {
+    StringBuilder sb = new StringBuilder("title = 'generated'\n");
+    
+    for (int i = 0; i < tables; i++) {
+      sb.append("[table").append(i).append("]\n")
+        .append("key = \"value ").append(i).append("\"\n")
+        .append("number = ").append(i).append('\n')
+        .append("text = '''\n[not.a.table]\n'''\n")
+        .append("list = [\n  1,\n  2, # [not.a.table]\n]\n")
+        .append("[table").append(i).append(".subtable]\n")
+        .append("inline = { a = 1, b = \"[x]\" }\n")
+        .append("[[array]]\nname = 'element ").append(i).append("'\n\n");
+    }
+    
+    return sb.append(tail).toString();
+  }
+}
@@ -0,0 +1,82 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ProjectionTest {
+
+  private static final String TOML = "title = 'a'\nowner = 'b'\n[server]\nhost = 'c'\nport = 8080\n[server.tls]\nenabled = true\n[database]\nurl = 'd'\nports = [ 1, 2 ]\n[other]\nx = \"\"\"\n[server]\nport = 1\"\"\"\n[[servers]]\nname = 'e'\nport = 1\n[[servers]]\nname = 'f'\nport = 2\n";
+
+  @Test
+  public void should_only_read_requested_keys() throws Exception {
+    Toml toml = new Toml().read(TOML, "title", "server.port");
+    
+    Map<String, Object> server = new HashMap<String, Object>();
+    server.put("port", 8080L);
+    Map<String, Object> expected = new HashMap<String, Object>();
+    expected.put("title", "a");
+    expected.put("server", server);
+    
+    assertEquals(expected, toml.toMap());
+  }
+  
+  @Test
+  public void should_read_whole_table() throws Exception {
+    Toml toml = new Toml().read(new StringReader(TOML), "database.*", "server");
+    
+    assertEquals(2, toml.toMap().size());
+    assertEquals("d", toml.getString("database.url"));
+    assertEquals(Arrays.asList(1L, 2L), toml.getList("database.ports"));
+    assertEquals("c", toml.getString("server.host"));
+    assertTrue(toml.getBoolean("server.tls.enabled"));
+  }
+  
+  @Test
+  public void should_read_key_in_every_table_array_element() throws Exception {
+    Toml toml = new Toml().read(TOML, "servers[0].port");
+    
+    List<Toml> servers = toml.getTables("servers");
+    assertEquals(2, servers.size());
+    assertEquals(1L, servers.get(0).getLong("port").longValue());
+    assertEquals(2L, servers.get(1).getLong("port").longValue());
+    assertNull(servers.get(0).getString("name"));
+  }
+  
+  @Test
+  public void should_read_inline_table_containing_requested_key() throws Exception {
+    Toml toml = new Toml().read("a = { b = 1, c = 2 }\nd = 3", "a.b");
+    
+    assertEquals(1L, toml.getLong("a.b").longValue());
+    assertEquals(2L, toml.getLong("a.c").longValue());
+    assertFalse(toml.contains("d"));
+  }
+  
+  @Test
+  public void should_read_everything_without_key_paths() throws Exception {
+    File file = new File(getClass().getResource("hard_example.toml").getFile());
+    
+    assertEquals(new Toml().read(file).toMap(), new Toml().read(file, new String[0]).toMap());
+  }
+  
+  @Test
+  public void should_read_nothing_if_nothing_matches() throws Exception {
+    assertEquals(Collections.emptyMap(), new Toml().read(TOML, "missing").toMap());
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_unterminated_value_in_skipped_table() throws Exception {
+    new Toml().read("[a]\nb = 'c\n[d]\ne = 1", "d.e");
+  }
+}
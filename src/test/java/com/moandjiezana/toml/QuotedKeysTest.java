@@ -104,6 +104,22 @@ public class QuotedKeysTest {
     assertEquals("type0", toml.getString("dog.\"type\".breed.name"));
   }
   
+  @Test
+  public void should_support_several_quoted_segments() throws Exception {
+    Toml toml = new Toml().read("[\"a.b\".'c d'.\"e\"]\n  key = 1\n[[\"f\".'g h']]\n  key = 2");
+    
+    assertEquals(1, toml.getLong("\"a.b\".'c d'.\"e\".key").intValue());
+    assertEquals(2, toml.getLong("\"f\".'g h'[0].key").intValue());
+  }
+  
+  @Test
+  public void should_support_single_quote_in_quoted_key() throws Exception {
+    Toml toml = new Toml().read("\"it's\" = 1\n\"a\\\\\" = 2");
+    
+    assertEquals(1, toml.getLong("\"it's\"").intValue());
+    assertEquals(2, toml.getLong("\"a\\\\\"").intValue());
+  }
+  
   @Test
   public void should_support_unicode() throws Exception {
     Toml toml = new Toml().read("[[\"\\u00B1\"]]\n  \"\\u00B1\" = \"a\"\n [\"\\u00B11\"]\n  \"±\" = 1");
@@ -128,6 +144,11 @@ public class QuotedKeysTest {
     new Toml().read("[a.a\"bc\"]");
   }
   
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_text_after_quoted_table_segment() throws Exception {
+    new Toml().read("[\"a\" b]");
+  }
+  
   private static class Quoted {
     
     String ʎǝʞ;
@@ -0,0 +1,139 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class StreamTablesTest {
+
+  @Test
+  public void should_stream_table_array_elements() throws Exception {
+    Iterator<Toml> products = Toml.streamTables(new StringReader("title = 'a'\n[[products]]\nname = 'b'\n[products.details]\ncolour = 'red'\n[[products.variants]]\nsize = 1\n[[products.variants]]\nsize = 2\n[other]\nname = 'x'\n[[products]]\nname = 'c'\n[[productsOther]]\nname = 'y'\n[[products]]\n"), "products");
+    
+    Toml first = products.next();
+    assertEquals("b", first.getString("name"));
+    assertEquals("red", first.getString("details.colour"));
+    assertEquals(2L, first.getLong("variants[1].size").longValue());
+    
+    assertTrue(products.hasNext());
+    assertTrue(products.hasNext());
+    Toml second = products.next();
+    assertEquals("c", second.getString("name"));
+    assertFalse(second.containsTable("details"));
+    
+    assertTrue(products.next().isEmpty());
+    assertFalse(products.hasNext());
+    
+    try {
+      products.next();
+      fail();
+    } catch (NoSuchElementException e) {}
+  }
+  
+  @Test
+  public void should_stream_nested_table_array() throws Exception {
+    Iterator<Toml> products = Toml.streamTables(new ByteArrayInputStream("[store]\nname = 'a'\n[[store.products]]\nname = 'b'\n[[store.products]]\nname = 'c'".getBytes("UTF-8")), "store.products");
+    
+    assertEquals("b", products.next().getString("name"));
+    assertEquals("c", products.next().getString("name"));
+    assertFalse(products.hasNext());
+  }
+  
+  @Test
+  public void should_stream_nothing_if_table_array_is_missing() throws Exception {
+    assertFalse(Toml.streamTables(new StringReader("[a]\nb = 1"), "products").hasNext());
+  }
+  
+  @Test
+  public void should_stream_many_elements() throws Exception {
+    final int count = 100000;
+    Reader reader = new Reader() {
+      int element = 0;
+      String pending = "";
+      
+      @Override
+      public int read(char[] cbuf, int off, int len) {
+        if (pending.isEmpty()) {
+          if (element == count) {
+            return -1;
+          }
+          pending = "[[products]]\nid = " + element++ + "\n";
+        }
+        int read = Math.min(len, pending.length());
+        pending.getChars(0, read, cbuf, off);
+        pending = pending.substring(read);
+        return read;
+      }
+      
+      @Override
+      public void close() {}
+    };
+    
+    Iterator<Toml> products = Toml.streamTables(reader, "products");
+    long expected = 0;
+    while (products.hasNext()) {
+      assertEquals(expected++, products.next().getLong("id").longValue());
+    }
+    assertEquals(count, expected);
+  }
+  
+  @Test
+  public void should_fail_on_duplicate_key_in_element() throws Exception {
+    Iterator<Toml> products = Toml.streamTables(new StringReader("[[products]]\na = 1\na = 2\n"), "products");
+    
+    try {
+      products.next();
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Duplicate key on line 3: a", e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_parse_each_element_separately() throws Exception {
+    Iterator<Toml> products = Toml.streamTables(new StringReader("[[products]]\n[products.a]\n[[products]]\n[products.a]\nb = 1"), "products");
+    
+    assertNull(products.next().getLong("a.b"));
+    assertEquals(1L, products.next().getLong("a.b").longValue());
+  }
+  
+  @Test
+  public void should_close_reader_when_element_is_invalid() throws Exception {
+    final boolean[] closed = { false };
+    Reader reader = new StringReader("[[products]]\na = 1\na = 2\n") {
+      @Override
+      public void close() {
+        closed[0] = true;
+        super.close();
+      }
+    };
+    Iterator<Toml> products = Toml.streamTables(reader, "products");
+    
+    try {
+      products.next();
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(closed[0]);
+    }
+    
+    assertFalse(products.hasNext());
+  }
+  
+  @Test
+  public void should_not_convert_values_outside_table_array() throws Exception {
+    Iterator<Toml> products = Toml.streamTables(new StringReader("a = 2017-13-01T00:00:00Z\n[b]\nc = 1.0e\n[[products]]\nname = 'd'"), "products");
+    
+    assertEquals("d", products.next().getString("name"));
+    assertFalse(products.hasNext());
+  }
+}
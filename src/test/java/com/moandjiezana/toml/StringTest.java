@@ -89,6 +89,25 @@ public class StringTest {
   public void should_fail_on_escaped_slash() throws Exception {
     new Toml().read("key=\"\\/\"");
   }
+  
+  @Test
+  public void should_not_unescape_characters_after_escaped_backslash() throws Exception {
+    Toml toml = new Toml().read("a = \"C:\\\\new\\\\u0041\"\nb = \"\\\\\"\nc = \"\"\"\\\\ \\\\t\"\"\"");
+    
+    assertEquals("C:\\new\\u0041", toml.getString("a"));
+    assertEquals("\\", toml.getString("b"));
+    assertEquals("\\ \\t", toml.getString("c"));
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_invalid_unicode_escape() throws Exception {
+    new Toml().read("key=\"\\u00G1\"");
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_reserved_special_character_in_multiline_string() throws Exception {
+    new Toml().read("key=\"\"\"\\m\"\"\"");
+  }
 
   @Test(expected = IllegalStateException.class)
   public void should_fail_on_text_after_literal_string() {
@@ -4,6 +4,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
@@ -115,6 +116,17 @@ public class TableArrayTest {
     new Toml().read("[[a]]\n [a.b]\n [[a]]\n [a.b]");
   }
   
+  @Test
+  public void should_share_keys_between_table_array_elements() throws Exception {
+    Toml toml = new Toml().read("[[a]]\n  host = \"x\"\n[[a]]\n  host = \"y\"");
+    
+    String first = toml.getTables("a").get(0).toMap().keySet().iterator().next();
+    String second = toml.getTables("a").get(1).toMap().keySet().iterator().next();
+    
+    assertEquals("host", first);
+    assertSame(first, second);
+  }
+  
   @Test(expected = IllegalStateException.class)
   public void should_fail_on_empty_table_array_name() {
     new Toml().read("[[]]");
@@ -0,0 +1,200 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static java.util.Arrays.asList;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.moandjiezana.toml.TomlEventReader.Event;
+
+public class TomlEventReaderTest {
+
+  @Test
+  public void should_read_events_in_order() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new StringReader("a = 1 # comment\n\n[table]\n  b = \"\"\"\nmulti\nline\"\"\"\n  c = true\n[[array]]\n[[array]]\nd = [1, 2]"));
+
+    assertNext(reader, Event.KEY, 1, null, "a");
+    assertNext(reader, Event.VALUE, 1, null, "a");
+    assertEquals(1L, reader.getLong().longValue());
+    assertNext(reader, Event.TABLE_START, 3, "table", null);
+    assertNext(reader, Event.KEY, 4, "table", "b");
+    assertNext(reader, Event.VALUE, 4, "table", "b");
+    assertEquals("multi\nline", reader.getString());
+    assertNext(reader, Event.KEY, 7, "table", "c");
+    assertNext(reader, Event.VALUE, 7, "table", "c");
+    assertTrue(reader.getBoolean());
+    assertNext(reader, Event.TABLE_ARRAY_ELEMENT, 8, "array", null);
+    assertNext(reader, Event.TABLE_ARRAY_ELEMENT, 9, "array", null);
+    assertNext(reader, Event.KEY, 10, "array", "d");
+    assertNext(reader, Event.VALUE, 10, "array", "d");
+    assertEquals(asList(1L, 2L), reader.getList());
+    assertFalse(reader.hasNext());
+    
+    reader.close();
+  }
+  
+  @Test
+  public void should_read_typed_values_from_input_stream() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new ByteArrayInputStream("d = 1.5\ndate = 1979-05-27T07:32:00Z\nstr = 'välue'\ninline = { a = 1 }".getBytes("UTF-8")));
+    
+    reader.next();
+    reader.next();
+    assertEquals(1.5, reader.getDouble(), 0);
+    reader.next();
+    reader.next();
+    Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    calendar.clear();
+    calendar.set(1979, Calendar.MAY, 27, 7, 32, 0);
+    assertEquals(calendar.getTime(), reader.getDate());
+    reader.next();
+    reader.next();
+    assertEquals("välue", reader.getString());
+    reader.next();
+    reader.next();
+    assertEquals(1L, ((Map<?, ?>) reader.getValue()).get("a"));
+    
+    reader.close();
+  }
+  
+  @Test
+  public void should_not_move_when_calling_has_next() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new StringReader("a = 1\nb = 2"));
+    
+    assertTrue(reader.hasNext());
+    assertTrue(reader.hasNext());
+    assertNull(reader.getEvent());
+    reader.next();
+    reader.next();
+    assertTrue(reader.hasNext());
+    assertEquals("a", reader.getKey());
+    assertEquals(1L, reader.getValue());
+  }
+  
+  @Test
+  public void should_not_detect_duplicate_keys() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new StringReader("a = 1\na = 2"));
+    
+    int values = 0;
+    while (reader.hasNext()) {
+      if (reader.next() == Event.VALUE) {
+        values++;
+      }
+    }
+    
+    assertEquals(2, values);
+  }
+  
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_invalid_toml() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new StringReader("a = 1\nb = 1 2"));
+    
+    while (reader.hasNext()) {
+      reader.next();
+    }
+  }
+  
+  @Test(expected = NoSuchElementException.class)
+  public void should_fail_when_no_more_events() throws Exception {
+    TomlEventReader reader = new TomlEventReader(new StringReader("# only a comment"));
+    
+    reader.next();
+  }
+  
+  @Test
+  public void should_push_events_to_handler() throws Exception {
+    RecordingHandler handler = new RecordingHandler(-1);
+    
+    new TomlEventReader(new StringReader("a = 1\n[table]\nb = 'x'\n[[array]]\n[[array]]\nc = [true]")).accept(handler);
+    
+    assertEquals(asList("a = 1 (1)", "[table] (2)", "b = x (3)", "[[array]] (4)", "[[array]] (5)", "c = [true] (6)"), handler.events);
+  }
+  
+  @Test
+  public void should_push_remaining_events_to_handler() throws Exception {
+    RecordingHandler handler = new RecordingHandler(-1);
+    TomlEventReader reader = new TomlEventReader(new StringReader("a = 1\nb = 2"));
+    reader.next();
+    reader.next();
+    reader.hasNext();
+    
+    reader.accept(handler);
+    
+    assertEquals(asList("b = 2 (2)"), handler.events);
+  }
+  
+  @Test
+  public void should_stop_when_handler_returns_false() throws Exception {
+    RecordingHandler handler = new RecordingHandler(2);
+    
+    new TomlEventReader(new StringReader("a = 1\nb = 2\nc = 3\nd = 4 e")).accept(handler);
+    
+    assertEquals(asList("a = 1 (1)", "b = 2 (2)"), handler.events);
+  }
+  
+  @Test
+  public void should_pass_errors_to_handler() throws Exception {
+    RecordingHandler handler = new RecordingHandler(-1);
+    
+    new TomlEventReader(new StringReader("a = 1\n[in valid]\nb = 2")).accept(handler);
+    
+    assertEquals(2, handler.events.size());
+    assertEquals("a = 1 (1)", handler.events.get(0));
+    assertTrue(handler.events.get(1).startsWith("Invalid table definition on line 2: [in valid]"));
+  }
+  
+  private static class RecordingHandler implements TomlHandler {
+    
+    final List<String> events = new ArrayList<String>();
+    private final int maxEvents;
+
+    RecordingHandler(int maxEvents) {
+      this.maxEvents = maxEvents;
+    }
+    
+    @Override
+    public boolean onTable(String name, int line) {
+      return record("[" + name + "] (" + line + ")");
+    }
+
+    @Override
+    public boolean onTableArray(String name, int line) {
+      return record("[[" + name + "]] (" + line + ")");
+    }
+
+    @Override
+    public boolean onKeyValue(String key, Object value, int line) {
+      return record(key + " = " + value + " (" + line + ")");
+    }
+
+    @Override
+    public void onError(String message) {
+      record(message);
+    }
+    
+    private boolean record(String event) {
+      events.add(event);
+      
+      return events.size() != maxEvents;
+    }
+  }
+  
+  private void assertNext(TomlEventReader reader, Event event, int line, String tableName, String key) {
+    assertTrue(reader.hasNext());
+    assertEquals(event, reader.next());
+    assertEquals(line, reader.getLine());
+    assertEquals(tableName, reader.getTableName());
+    assertEquals(key, reader.getKey());
+  }
+}
@@ -3,18 +3,30 @@ package com.moandjiezana.toml;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class TomlReadTest {
 
+  @Rule
+  public final TemporaryFolder testDirectory = new TemporaryFolder();
+
   @Test
   public void should_read_input_stream() throws Exception {
     Toml toml = new Toml().read(getClass().getResourceAsStream("should_load_from_file.toml"));
@@ -22,6 +34,47 @@ public class TomlReadTest {
     assertEquals("value", toml.getString("key"));
   }
 
+  @Test
+  public void should_read_utf8_input_stream_larger_than_buffer() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      sb.append("[\"tablé").append(i).append("\"]\r\n")
+        .append("key = \"välue").append(i).append("\"\r\n")
+        .append("multiline = '''\r\nlïne 1\r\nline 2'''\r\n");
+    }
+    String tomlString = sb.toString();
+    
+    InputStream chunkedInputStream = new ByteArrayInputStream(tomlString.getBytes("UTF-8")) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 7));
+      }
+    };
+    
+    Toml toml = new Toml().read(chunkedInputStream);
+
+    assertEquals(new Toml().read(tomlString).toMap(), toml.toMap());
+    assertEquals("välue1999", toml.getString("\"tablé1999\".key"));
+    assertEquals("lïne 1\nline 2", toml.getString("\"tablé0\".multiline"));
+  }
+
+  @Test
+  public void should_read_byte_buffer() throws Exception {
+    byte[] bytes = "ignored\nkey = \"välue\"\n[\"tablé\"]\nb = true".getBytes("UTF-8");
+    ByteBuffer heapBuffer = ByteBuffer.wrap(bytes);
+    heapBuffer.position(8);
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length);
+    directBuffer.put(bytes).position(8);
+    
+    for (ByteBuffer byteBuffer : Arrays.asList(heapBuffer, directBuffer)) {
+      Toml toml = new Toml().read(byteBuffer);
+      
+      assertEquals("välue", toml.getString("key"));
+      assertTrue(toml.getBoolean("\"tablé\".b"));
+      assertEquals(8, byteBuffer.position());
+    }
+  }
+
   @Test
   public void should_read_reader() throws Exception {
     Toml toml = new Toml().read(new StringReader("key=1"));
@@ -29,6 +82,49 @@ public class TomlReadTest {
     assertEquals(1, toml.getLong("key").intValue());
   }
 
+  @Test
+  public void should_read_reader_larger_than_buffer() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      sb.append("[table").append(i).append("]\n")
+        .append("key = \"value").append(i).append("\"\n")
+        .append("multiline = \"\"\"\nline 1\nline 2\"\"\"\n")
+        .append("array = [\n  1,\n  2\n]\n");
+    }
+    String tomlString = sb.toString();
+    
+    Reader chunkedReader = new StringReader(tomlString) {
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        return super.read(cbuf, off, Math.min(len, 7));
+      }
+    };
+
+    assertEquals(new Toml().read(tomlString).toMap(), new Toml().read(chunkedReader).toMap());
+  }
+
+  @Test
+  public void should_normalise_line_endings_from_reader() throws Exception {
+    Toml toml = new Toml().read(new StringReader("a = \"\"\"\r\nb\r\nc\"\"\"\r\nd = 1\re = 2"));
+
+    assertEquals("b\nc", toml.getString("a"));
+    assertEquals(1, toml.getLong("d").intValue());
+    assertEquals(2, toml.getLong("e").intValue());
+  }
+
+  @Test
+  public void should_read_utf8_file() throws Exception {
+    File file = testDirectory.newFile();
+    OutputStream outputStream = new FileOutputStream(file);
+    outputStream.write("\"clé\" = \"valeur ±\"\r\n[table] # it's a table\r\ninline = { \"ключ\" = '''\r\n値\r\n''' }\r\n".getBytes("UTF-8"));
+    outputStream.close();
+
+    Toml toml = new Toml().read(file);
+
+    assertEquals("valeur ±", toml.getString("\"clé\""));
+    assertEquals("値\n", toml.getTable("table.inline").getString("\"ключ\""));
+  }
+
   @Test
   public void should_fail_on_missing_file() throws Exception {
     try {
@@ -0,0 +1,101 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class TomlReaderTest {
+  
+  private static final String TOML = "title = 'a'\n[server]\nport = 8080\nhosts = ['b', 'c']\n[[servers]]\nname = 'e'\n[[servers]]\nname = 'f'\nlimits = { cpu = 1.5 }\n";
+
+  @Test
+  public void should_read_like_toml() throws Exception {
+    TomlReader reader = new TomlReader();
+    
+    for (int i = 0; i < 3; i++) {
+      assertEquals(new Toml().read(TOML).toMap(), reader.read(TOML).toMap());
+    }
+  }
+  
+  @Test
+  public void should_read_all_sources() throws Exception {
+    TomlReader reader = new TomlReader();
+    Object expected = new Toml().read(TOML).toMap();
+    
+    assertEquals(expected, reader.read(new StringReader(TOML)).toMap());
+    assertEquals(expected, reader.read(new ByteArrayInputStream(TOML.getBytes("UTF-8"))).toMap());
+    assertEquals(expected, reader.read(ByteBuffer.wrap(TOML.getBytes("UTF-8"))).toMap());
+    assertEquals(expected, reader.read(new StringReader(TOML)).toMap());
+  }
+  
+  @Test
+  public void should_not_keep_values_of_previous_document() throws Exception {
+    TomlReader reader = new TomlReader();
+    Toml first = reader.read("a = 1\n[b]\nc = 2");
+    Toml second = reader.read("[b]\nd = 3");
+    
+    assertEquals(1, first.getLong("a").intValue());
+    assertEquals(2, first.getLong("b.c").intValue());
+    assertEquals(null, second.getLong("a"));
+    assertEquals(null, second.getLong("b.c"));
+    assertEquals(3, second.getLong("b.d").intValue());
+  }
+  
+  @Test
+  public void should_read_after_error() throws Exception {
+    TomlReader reader = new TomlReader();
+    
+    try {
+      reader.read("[a]\nb = 1\n[a]");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals("Duplicate table definition on line 3: [a]", e.getMessage());
+    }
+    
+    try {
+      reader.read("x = [1, 'y'");
+      fail();
+    } catch (TomlParseException e) {
+      assertEquals(2, e.getErrors().size());
+    }
+    
+    assertEquals(1, reader.read("[a]\nb = 1").getLong("a.b").intValue());
+  }
+  
+  @Test
+  public void should_read_long_lines_from_reader() throws Exception {
+    TomlReader reader = new TomlReader();
+    StringBuilder sb = new StringBuilder("a = '");
+    for (int i = 0; i < ReaderSource.DEFAULT_BUFFER_SIZE * 3; i++) {
+      sb.append('x');
+    }
+    String toml = sb.append("'").toString();
+    
+    assertEquals(ReaderSource.DEFAULT_BUFFER_SIZE * 3, reader.read(new StringReader(toml)).getString("a").length());
+    assertEquals("b", reader.read(new StringReader("a = 'b'")).getString("a"));
+  }
+  
+  @Test
+  public void should_share_keys_between_documents() throws Exception {
+    TomlReader reader = new TomlReader();
+    String first = reader.read("name = 'a'").toMap().keySet().iterator().next();
+    String second = reader.read("name = 'b'").toMap().keySet().iterator().next();
+    
+    assertSame(first, second);
+  }
+  
+  @Test
+  public void should_use_defaults() throws Exception {
+    TomlReader reader = new TomlReader(new Toml().read("a = 1\nb = 2"));
+    Toml toml = reader.read("a = 3");
+    
+    assertEquals(3, toml.getLong("a").intValue());
+    assertEquals(2, toml.getLong("b").intValue());
+  }
+}
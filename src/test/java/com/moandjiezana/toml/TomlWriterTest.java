@@ -14,6 +14,10 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URL;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -480,6 +484,27 @@ public class TomlWriterTest {
     
     assertEquals(expected, writer.write(o));
   }
+  
+  @Test
+  public void should_write_java_time_values() throws Exception {
+    Map<String, Object> o = new LinkedHashMap<String, Object>();
+    o.put("instant", Instant.parse("2015-07-01T11:05:30.345Z"));
+    o.put("offset", OffsetDateTime.of(1979, 5, 27, 0, 32, 0, 999000000, ZoneOffset.ofHours(-7)));
+    o.put("zoned", OffsetDateTime.of(2015, 7, 1, 13, 5, 30, 0, ZoneOffset.ofHours(2)).atZoneSameInstant(ZoneId.of("Africa/Johannesburg")));
+    o.put("utc", OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+    
+    TomlWriter writer = new TomlWriter.Builder().
+      timeZone(TimeZone.getTimeZone("Africa/Johannesburg")).
+      showFractionalSeconds().
+      build();
+    
+    String expected = "instant = 2015-07-01T13:05:30.345+02:00\n"
+      + "offset = 1979-05-27T00:32:00.999-07:00\n"
+      + "zoned = 2015-07-01T13:05:30.000+02:00\n"
+      + "utc = 0001-01-01T00:00:00.000Z\n";
+    
+    assertEquals(expected, writer.write(o));
+  }
 
   private static class SimpleTestClass {
     int a = 1;
@@ -1,5 +1,6 @@
 package com.moandjiezana.toml;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,4 +24,55 @@ public class Toml_ToMapTest {
       Assert.assertEquals(Long.valueOf(1), ((Map<String, Object>) toml.get("a")).get("b"));
       Assert.assertEquals(Long.valueOf(2), toml.get("c"));
     }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_convert_small_and_large_tables() throws Exception {
+      Map<String, Object> toml = new Toml().read("[small]\n a = 1\n b = 2\n[large]\n a = 1\n b = 2\n c = 3\n d = 4\n e = 5\n f = 6\n g = 7\n h = 8\n i = 9").toMap();
+      Map<String, Object> small = (Map<String, Object>) toml.get("small");
+      Map<String, Object> large = (Map<String, Object>) toml.get("large");
+      Map<String, Object> expected = new HashMap<String, Object>();
+      expected.put("a", 1L);
+      expected.put("b", 2L);
+      
+      Assert.assertEquals(expected, small);
+      Assert.assertEquals(small, expected);
+      Assert.assertEquals(expected.hashCode(), small.hashCode());
+      Assert.assertTrue(small.containsKey("b"));
+      Assert.assertFalse(small.containsKey("c"));
+      Assert.assertNull(small.get("c"));
+      Assert.assertEquals(9, large.size());
+      Assert.assertEquals(Long.valueOf(9), large.get("i"));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void should_not_modify_tables() throws Exception {
+      Map<String, Object> toml = new Toml().read("[a]\n b = 1").toMap();
+      
+      ((Map<String, Object>) toml.get("a")).put("c", 2L);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_not_modify_lazy_tables() throws Exception {
+      for (Toml toml : Arrays.asList(new Toml().lazyValues().read("[a]\n b = 1"), new Toml().lazyTables().read("[a]\n b = 1"))) {
+        Map<String, Object> a = (Map<String, Object>) toml.toMap().get("a");
+        
+        try {
+          a.put("c", 2L);
+          Assert.fail();
+        } catch (UnsupportedOperationException e) {}
+        
+        try {
+          a.remove("b");
+          Assert.fail();
+        } catch (UnsupportedOperationException e) {}
+        
+        try {
+          a.entrySet().iterator().next().setValue(2L);
+          Assert.fail();
+        } catch (UnsupportedOperationException e) {}
+      }
+    }
 }
@@ -13,6 +13,13 @@ public class UnicodeTest {
     assertEquals("José\nLocation\tSF", toml.getString("key"));
   }
 
+  @Test
+  public void should_support_long_escape_form() throws Exception {
+    Toml toml = new Toml().read("key = \"\\U0001F600 \\U00B1\"");
+    
+    assertEquals("\uD83D\uDE00 \u00B1", toml.getString("key"));
+  }
+
   @Test
   public void should_support_unicode_literal() throws Exception {
     Toml toml = new Toml().read("key = \"José LöcÄtion SF\"");
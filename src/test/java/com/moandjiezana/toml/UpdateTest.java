@@ -0,0 +1,156 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class UpdateTest {
+  
+  private static final String TOML = "title = 'a'\n[server]\nport = 8080\nhosts = ['b', 'c']\n[database]\nurl = 'd'\n[[servers]]\nname = 'e'\n[[servers]]\nname = 'f'\n";
+
+  @Test
+  public void should_read_like_read() throws Exception {
+    assertEquals(new Toml().read(TOML).toMap(), new Toml().update(TOML).toMap());
+  }
+  
+  @Test
+  public void should_read_changed_section() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    
+    toml.update(TOML.replace("port = 8080", "port = 9090"));
+    
+    assertEquals(9090L, toml.getLong("server.port").longValue());
+    assertEquals("d", toml.getString("database.url"));
+    assertEquals(new Toml().read(TOML.replace("port = 8080", "port = 9090")).toMap(), toml.toMap());
+  }
+  
+  @Test
+  public void should_reuse_values_of_unchanged_sections() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    List<Object> hosts = toml.getList("server.hosts");
+    
+    toml.update(TOML.replace("url = 'd'", "url = 'g'"));
+    
+    assertEquals(hosts, toml.getList("server.hosts"));
+    assertEquals("g", toml.getString("database.url"));
+  }
+  
+  @Test
+  public void should_match_sections_by_table_path() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    List<Object> hosts = toml.getList("server.hosts");
+    String respelled = TOML.replace("[server]", "[ server ] # respelled");
+    
+    toml.update(respelled);
+    
+    assertEquals(hosts, toml.getList("server.hosts"));
+    assertEquals(new Toml().read(respelled).toMap(), toml.toMap());
+  }
+  
+  @Test
+  public void should_report_same_errors_as_read_when_headers_are_respelled() throws Exception {
+    String invalid = "[a]\nb = 1\n[c]\n[ c ]\n";
+    String expected = null;
+    try {
+      new Toml().read(invalid);
+      fail();
+    } catch (IllegalStateException e) {
+      expected = e.getMessage();
+    }
+    Toml toml = new Toml().update("[a]\nb = 1\n[ c ]\n");
+    
+    try {
+      toml.update(invalid);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals(expected, e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_add_and_remove_sections() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    
+    toml.update("[new]\na = 1\n" + TOML.replace("[database]\nurl = 'd'\n", ""));
+    
+    assertEquals(1L, toml.getLong("new.a").longValue());
+    assertEquals(false, toml.containsTable("database"));
+    assertEquals(2, toml.getTables("servers").size());
+  }
+  
+  @Test
+  public void should_report_errors_on_moved_sections_with_new_line_numbers() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    
+    try {
+      toml.update("[server]\n\n" + TOML);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Duplicate table definition on line 4: [server]", e.getMessage());
+    }
+  }
+  
+  @Test
+  public void should_not_share_values_between_identical_sections() throws Exception {
+    Toml toml = new Toml().update("[[a]]\nxs = [1, 2]\n[[a]]\nxs = [1, 2]\n");
+    
+    toml.getTables("a").get(0).<Long>getList("xs").set(0, 42L);
+    
+    assertEquals(1L, toml.getTables("a").get(1).<Long>getList("xs").get(0).longValue());
+  }
+  
+  @Test
+  public void should_not_share_values_with_previous_version() throws Exception {
+    Toml toml = new Toml().update(TOML + "ports = [1, 2]\n");
+    List<Object> hosts = toml.getList("server.hosts");
+    List<Long> ports = toml.getList("servers[1].ports");
+    
+    toml.update(TOML.replace("url = 'd'", "url = 'g'") + "ports = [1, 2]\n");
+    hosts.set(0, "x");
+    ports.set(0, 42L);
+    
+    assertEquals("b", toml.getList("server.hosts").get(0));
+    assertEquals(1L, toml.<Long>getList("servers[1].ports").get(0).longValue());
+  }
+  
+  @Test
+  public void should_read_like_read_after_each_edit() throws Exception {
+    String[] versions = {
+      TOML,
+      TOML.replace("port = 8080", "port = 8080\nname = 'h'"),
+      TOML.replace("[database]\n", ""),
+      TOML.replace("[database]\n", "[database]\n[database.pool]\nsize = 2\n"),
+      TOML.replace("[[servers]]\nname = 'e'\n", ""),
+      TOML.replace("hosts = ['b', 'c']", "hosts = '''\n[database]\n'''"),
+      TOML.replace("hosts = ['b', 'c']", "hosts = [\n'b',\n]"),
+      TOML.replace("url = 'd'", "url = 'd'\n\n"),
+      "",
+      TOML
+    };
+    Toml toml = new Toml();
+    
+    for (String version : versions) {
+      toml.update(version);
+    
+      assertEquals(version, new Toml().read(version).toMap(), toml.toMap());
+    }
+  }
+  
+  @Test
+  public void should_recover_after_invalid_version() throws Exception {
+    Toml toml = new Toml().update(TOML);
+    
+    try {
+      toml.update(TOML.replace("port = 8080", "port = 80 80"));
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals(8080L, toml.getLong("server.port").longValue());
+    }
+    
+    toml.update(TOML);
+    assertEquals(new Toml().read(TOML).toMap(), toml.toMap());
+  }
+}
@@ -0,0 +1,98 @@
+package com.moandjiezana.toml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+public class ValidateTest {
+
+  @Test
+  public void should_accept_valid_toml() throws Exception {
+    assertTrue(Toml.validate("a = 1\n[b]\nc = { d = [1, 2] }\n[[e]]\nf = 'g'\n[[e]]\nf = 'h'\n[e.i]\nj = 2020-01-01T00:00:00Z").isEmpty());
+  }
+  
+  @Test
+  public void should_accept_valid_files() throws Exception {
+    assertTrue(Toml.validate(new File(getClass().getResource("example.toml").getFile())).isEmpty());
+    assertTrue(Toml.validate(new File(getClass().getResource("hard_example.toml").getFile())).isEmpty());
+  }
+  
+  @Test
+  public void should_report_invalid_value() throws Exception {
+    assertSameError("a = 1\nb = 1.2.3");
+  }
+  
+  @Test
+  public void should_report_duplicate_key() throws Exception {
+    assertSameError("[a]\nb = 1\nb = 2");
+  }
+  
+  @Test
+  public void should_report_duplicate_table() throws Exception {
+    assertSameError("[a.b]\n[a]\n[a]\n[a.b]");
+  }
+  
+  @Test
+  public void should_report_table_that_duplicates_key() throws Exception {
+    assertSameError("[a]\nb = 1\n[a.b]");
+  }
+  
+  @Test
+  public void should_report_key_that_duplicates_table() throws Exception {
+    assertSameError("[a.b]\n[a]\nb = 1");
+  }
+  
+  @Test
+  public void should_report_inline_table_that_duplicates_table() throws Exception {
+    assertSameError("[a.b]\nc = 1\n[a]\nb = { c = 2 }");
+  }
+  
+  @Test
+  public void should_report_duplicate_key_in_table_array_element() throws Exception {
+    assertSameError("[[a]]\nb = 1\n[[a]]\nb = 1\nb = 2");
+  }
+  
+  @Test
+  public void should_report_table_array_that_duplicates_table() throws Exception {
+    assertSameError("[a]\n[[a]]");
+  }
+  
+  @Test
+  public void should_accept_table_array_elements_separated_by_many_tables() throws Exception {
+    // Varies the number of tables so that the tables grow while an element is being created
+    for (int tables = 50; tables < 150; tables++) {
+      StringBuilder toml = new StringBuilder("[[arr]]\nname = 1\n");
+      for (int i = 0; i < tables; i++) {
+        toml.append("[t").append(i).append("]\nk = 1\n");
+      }
+      toml.append("[[arr]]\nname = 2\n[[b.arr]]\nname = 3\n");
+      
+      new Toml().read(toml.toString());
+      assertTrue(tables + " tables: " + Toml.validate(toml.toString()), Toml.validate(toml.toString()).isEmpty());
+    }
+  }
+  
+  @Test
+  public void should_validate_reader_and_input_stream() throws Exception {
+    String toml = "a = 1\na = 2";
+    
+    assertEquals(Toml.validate(toml).toString(), Toml.validate(new StringReader(toml)).toString());
+    assertEquals(Toml.validate(toml).toString(), Toml.validate(new ByteArrayInputStream(toml.getBytes("UTF-8"))).toString());
+    assertTrue(Toml.validate(new ByteArrayInputStream("a = 'é'".getBytes("UTF-8"))).isEmpty());
+  }
+  
+  private void assertSameError(String toml) {
+    try {
+      new Toml().read(toml);
+      fail("Expected " + toml + " to be invalid");
+    } catch (TomlParseException e) {
+      assertEquals(e.getErrors().toString(), Toml.validate(toml).toString());
+    }
+  }
+}